@@ -0,0 +1,29 @@
+package com.ilmatty98;
+
+import com.ilmatty98.service.CalibrationService;
+import io.quarkus.runtime.QuarkusApplication;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Command mode: java -jar quarkus-run.jar calibrate, runs the Argon2id calibration and exits
+ **/
+@Slf4j
+@RequiredArgsConstructor
+public class CalibrationCommand implements QuarkusApplication {
+
+    public static final String NAME = "calibrate";
+
+    private final CalibrationService calibrationService;
+
+    @Override
+    public int run(String... args) {
+        var calibration = calibrationService.calibrate();
+        log.info("Recommended parameters: encryption.argon2id.iterations={} encryption.argon2id.memoryKB={} "
+                        + "encryption.argon2id.parallelism={}", calibration.getIterations(), calibration.getMemoryKB(),
+                calibration.getParallelism());
+        log.info("Latency {} ms, {} concurrent hashes, {} logins/s", Math.round(calibration.getLatencyMs()),
+                calibration.getMaxConcurrentHashes(), String.format("%.2f", calibration.getLoginsPerSecond()));
+        return 0;
+    }
+}
@@ -4,12 +4,17 @@ import io.quarkus.runtime.Quarkus;
 import io.quarkus.runtime.annotations.QuarkusMain;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Arrays;
+
 @Slf4j
 @QuarkusMain
 public class Main {
 
     public static void main(String... args) {
         log.info("Running main method");
-        Quarkus.run(args);
+        if (Arrays.asList(args).contains(CalibrationCommand.NAME))
+            Quarkus.run(CalibrationCommand.class, args);
+        else
+            Quarkus.run(args);
     }
 }
\ No newline at end of file
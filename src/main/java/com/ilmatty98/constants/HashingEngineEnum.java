@@ -0,0 +1,7 @@
+package com.ilmatty98.constants;
+
+public enum HashingEngineEnum {
+    JAVA,
+    BOUNCYCASTLE,
+    NATIVE
+}
@@ -0,0 +1,26 @@
+package com.ilmatty98.constants;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.NamedParameterSpec;
+import java.security.spec.RSAKeyGenParameterSpec;
+
+@Getter
+@RequiredArgsConstructor
+public enum TokenAlgorithmEnum {
+
+    RS256("RSA", new RSAKeyGenParameterSpec(2048, RSAKeyGenParameterSpec.F4), "SHA256withRSA"),
+    ES256("EC", new ECGenParameterSpec("secp256r1"), "SHA256withECDSAinP1363Format"),
+    ED25519("Ed25519", NamedParameterSpec.ED25519, "Ed25519");
+
+    private final String keyAlgorithm;
+    private final AlgorithmParameterSpec keySpec;
+
+    /**
+     * JCA signature producing the JWS signature bytes (R || S for ECDSA, not DER)
+     **/
+    private final String signatureAlgorithm;
+}
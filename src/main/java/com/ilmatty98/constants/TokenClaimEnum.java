@@ -10,7 +10,8 @@ public enum TokenClaimEnum {
     CLAIMS("claims"),
     ID("id"),
     EMAIL("email"),
-    ROLE("role");
+    ROLE("role"),
+    EPOCH("epoch");
 
     private final String label;
 }
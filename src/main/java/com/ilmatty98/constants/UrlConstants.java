@@ -7,10 +7,14 @@ import lombok.experimental.UtilityClass;
 public class UrlConstants {
 
     public static final String BASE_PATH_AUTHENTICATION = "/v1/authentication";
+    public static final String BASE_PATH_MANAGEMENT = "/v1/management";
+    public static final String BASE_PATH_WELL_KNOWN = "/.well-known";
+    public static final String BASE_PATH_INTROSPECTION = "/v1/introspection";
 
     public static final String HEADER_EMAIL = "email";
 
     public static final String LOG_IN = "/logIn";
+    public static final String REFRESH = "/refresh";
     public static final String SIGN_UP = "/signUp";
     public static final String SEND_HINT = "/sendHint/{email}";
     public static final String CHECK_EMAIL = "/checkEmail/{email}";
@@ -21,4 +25,10 @@ public class UrlConstants {
     public static final String CONFIRM_EMAIL = "/{email}/{code}/confirm";
     public static final String CONFIRM_CHANGE_EMAIL = "/confirmChangeEmail";
 
+    public static final String CALIBRATION = "/calibration";
+
+    public static final String JWKS = "/jwks.json";
+
+    public static final String INTROSPECT = "/introspect";
+
 }
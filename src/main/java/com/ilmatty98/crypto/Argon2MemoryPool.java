@@ -0,0 +1,62 @@
+package com.ilmatty98.crypto;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of preallocated Argon2 memory matrices: a matrix is leased for one computation and wiped on release,
+ * so a hash no longer allocates (and the GC no longer collects) tens of MB of blocks
+ **/
+public class Argon2MemoryPool {
+
+    private final int matrixLength;
+
+    private final BlockingQueue<long[]> matrices;
+
+    private final AtomicLong allocations = new AtomicLong();
+
+    public Argon2MemoryPool(int size, int memoryBlocks) {
+        this.matrixLength = memoryBlocks * Argon2idGenerator.QWORDS_IN_BLOCK;
+        this.matrices = new ArrayBlockingQueue<>(size);
+        for (var i = 0; i < size; i++) {
+            matrices.add(allocate());
+        }
+    }
+
+    /**
+     * Returns a pooled matrix, or a new one when the pool is empty or its matrices are too small
+     **/
+    public long[] lease(int memoryBlocks) {
+        var length = memoryBlocks * Argon2idGenerator.QWORDS_IN_BLOCK;
+        if (length <= matrixLength) {
+            var matrix = matrices.poll();
+            if (matrix != null)
+                return matrix;
+        }
+        return length <= matrixLength ? allocate() : new long[length];
+    }
+
+    /**
+     * Wipes the used part of the matrix and gives it back to the pool
+     **/
+    public void release(long[] matrix, int memoryBlocks) {
+        Arrays.fill(matrix, 0, Math.min(matrix.length, memoryBlocks * Argon2idGenerator.QWORDS_IN_BLOCK), 0);
+        if (matrix.length == matrixLength)
+            matrices.offer(matrix);
+    }
+
+    public int available() {
+        return matrices.size();
+    }
+
+    public long allocations() {
+        return allocations.get();
+    }
+
+    private long[] allocate() {
+        allocations.incrementAndGet();
+        return new long[matrixLength];
+    }
+}
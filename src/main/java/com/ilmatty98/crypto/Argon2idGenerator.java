@@ -0,0 +1,350 @@
+package com.ilmatty98.crypto;
+
+import lombok.Getter;
+import org.bouncycastle.crypto.digests.Blake2bDigest;
+import org.bouncycastle.util.Pack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Argon2id (version 1.3) that works on a memory matrix supplied by the caller, so that the matrix can be
+ * leased from a pool instead of being allocated for every hash.
+ * The output is byte-identical to BouncyCastle's Argon2BytesGenerator.
+ * The matrix is a flat long[]: block i of lane l starts at ((l * laneLength) + i) * QWORDS_IN_BLOCK.
+ * Lanes of the same slice only read blocks of the previous slices, so with a ForkJoinPool they are filled
+ * concurrently and synchronized at the end of every slice.
+ **/
+public class Argon2idGenerator {
+
+    public static final int QWORDS_IN_BLOCK = 128;
+
+    private static final int BLOCK_SIZE = 1024;
+    private static final int ADDRESSES_IN_BLOCK = 128;
+    private static final int PREHASH_DIGEST_LENGTH = 64;
+    private static final int PREHASH_SEED_LENGTH = 72;
+    private static final int SYNC_POINTS = 4;
+    private static final int VERSION = 0x13;
+    private static final int TYPE = 2;
+    private static final int MIN_OUTLEN = 4;
+    private static final long M32L = 0xFFFFFFFFL;
+
+    private final int iterations;
+    private final int memoryKB;
+    private final int lanes;
+    private final int segmentLength;
+    private final int laneLength;
+    private final ForkJoinPool forkJoinPool;
+
+    @Getter
+    private final int memoryBlocks;
+
+    public Argon2idGenerator(int iterations, int memoryKB, int parallelism) {
+        this(iterations, memoryKB, parallelism, null);
+    }
+
+    public Argon2idGenerator(int iterations, int memoryKB, int parallelism, ForkJoinPool forkJoinPool) {
+        if (iterations < 1 || parallelism < 1)
+            throw new IllegalArgumentException("Iterations and parallelism must be at least 1");
+
+        this.iterations = iterations;
+        this.memoryKB = memoryKB;
+        this.lanes = parallelism;
+        this.memoryBlocks = getMemoryBlocks(memoryKB, parallelism);
+        this.segmentLength = memoryBlocks / (SYNC_POINTS * lanes);
+        this.laneLength = segmentLength * SYNC_POINTS;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * Number of 1 KB blocks really used: at least 8 per lane and a multiple of 4 * lanes
+     **/
+    public static int getMemoryBlocks(int memoryKB, int parallelism) {
+        var memoryBlocks = Math.max(memoryKB, 2 * SYNC_POINTS * parallelism);
+        var blocks = (long) (memoryBlocks / (SYNC_POINTS * parallelism)) * SYNC_POINTS * parallelism;
+        if (blocks * QWORDS_IN_BLOCK > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Argon2id memory too large: " + memoryKB + " KB");
+        return (int) blocks;
+    }
+
+    /**
+     * @param memory matrix of at least memoryBlocks * QWORDS_IN_BLOCK longs, it is left dirty: the caller wipes it
+     **/
+    public byte[] generate(byte[] password, byte[] salt, int outLen, long[] memory) {
+        if (outLen < MIN_OUTLEN)
+            throw new IllegalArgumentException("Output length less than " + MIN_OUTLEN);
+        if (memory.length < memoryBlocks * QWORDS_IN_BLOCK)
+            throw new IllegalArgumentException("Memory matrix too small");
+
+        var tmpBlockBytes = new byte[BLOCK_SIZE];
+        try {
+            initialize(tmpBlockBytes, password, salt, outLen, memory);
+            fillMemoryBlocks(memory);
+
+            var out = new byte[outLen];
+            digest(tmpBlockBytes, out, memory);
+            return out;
+        } finally {
+            Arrays.fill(tmpBlockBytes, (byte) 0);
+        }
+    }
+
+    private void fillMemoryBlocks(long[] memory) {
+        var fillers = new Filler[lanes];
+        for (var lane = 0; lane < lanes; lane++) {
+            fillers[lane] = new Filler();
+        }
+
+        for (var pass = 0; pass < iterations; pass++) {
+            for (var slice = 0; slice < SYNC_POINTS; slice++) {
+                if (forkJoinPool == null || lanes == 1) {
+                    for (var lane = 0; lane < lanes; lane++) {
+                        fillSegment(memory, fillers[lane], pass, slice, lane);
+                    }
+                } else {
+                    fillSliceConcurrently(memory, fillers, pass, slice);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lane 0 is filled by the calling thread, the others by the pool; joining the tasks is the slice barrier
+     **/
+    private void fillSliceConcurrently(long[] memory, Filler[] fillers, int pass, int slice) {
+        var tasks = new ArrayList<ForkJoinTask<?>>(lanes - 1);
+        for (var lane = 1; lane < lanes; lane++) {
+            var currentLane = lane;
+            tasks.add(forkJoinPool.submit(() -> fillSegment(memory, fillers[currentLane], pass, slice, currentLane)));
+        }
+
+        fillSegment(memory, fillers[0], pass, slice, 0);
+        tasks.forEach(ForkJoinTask::join);
+    }
+
+    private void fillSegment(long[] memory, Filler filler, int pass, int slice, int lane) {
+        var dataIndependentAddressing = pass == 0 && slice < SYNC_POINTS / 2;
+        var startingIndex = pass == 0 && slice == 0 ? 2 : 0; // The first two blocks are already generated
+        var currentOffset = lane * laneLength + slice * segmentLength + startingIndex;
+        var prevOffset = currentOffset % laneLength == 0 ? currentOffset + laneLength - 1 : currentOffset - 1;
+
+        if (dataIndependentAddressing) {
+            Arrays.fill(filler.address, 0);
+            Arrays.fill(filler.input, 0);
+            filler.input[0] = pass & M32L;
+            filler.input[1] = lane & M32L;
+            filler.input[2] = slice & M32L;
+            filler.input[3] = memoryBlocks & M32L;
+            filler.input[4] = iterations & M32L;
+            filler.input[5] = TYPE & M32L;
+
+            if (pass == 0 && slice == 0)
+                filler.nextAddresses();
+        }
+
+        var withXor = pass != 0;
+
+        for (var index = startingIndex; index < segmentLength; index++) {
+            long pseudoRandom;
+            if (dataIndependentAddressing) {
+                var addressIndex = index % ADDRESSES_IN_BLOCK;
+                if (addressIndex == 0)
+                    filler.nextAddresses();
+                pseudoRandom = filler.address[addressIndex];
+            } else {
+                pseudoRandom = memory[prevOffset * QWORDS_IN_BLOCK];
+            }
+
+            // Can not reference other lanes in the first slice of the first pass
+            var refLane = pass == 0 && slice == 0 ? lane : (int) ((pseudoRandom >>> 32) % lanes);
+            var refColumn = getRefColumn(pass, slice, index, pseudoRandom, refLane == lane);
+
+            filler.fillBlock(memory, prevOffset * QWORDS_IN_BLOCK, (laneLength * refLane + refColumn) * QWORDS_IN_BLOCK,
+                    currentOffset * QWORDS_IN_BLOCK, withXor);
+
+            prevOffset = currentOffset;
+            currentOffset++;
+        }
+    }
+
+    private int getRefColumn(int pass, int slice, int index, long pseudoRandom, boolean sameLane) {
+        int referenceAreaSize;
+        int startPosition;
+
+        if (pass == 0) {
+            startPosition = 0;
+            referenceAreaSize = sameLane
+                    ? slice * segmentLength + index - 1
+                    : slice * segmentLength + (index == 0 ? -1 : 0);
+        } else {
+            startPosition = ((slice + 1) * segmentLength) % laneLength;
+            referenceAreaSize = sameLane
+                    ? laneLength - segmentLength + index - 1
+                    : laneLength - segmentLength + (index == 0 ? -1 : 0);
+        }
+
+        var relativePosition = pseudoRandom & M32L;
+        relativePosition = (relativePosition * relativePosition) >>> 32;
+        relativePosition = referenceAreaSize - 1 - ((referenceAreaSize * relativePosition) >>> 32);
+
+        return (int) (startPosition + relativePosition) % laneLength;
+    }
+
+    /**
+     * H0 = H64(p, τ, m, t, v, y, |P|, P, |S|, S, |K|, K, |X|, X), then the first two blocks of each lane
+     **/
+    private void initialize(byte[] tmpBlockBytes, byte[] password, byte[] salt, int outLen, long[] memory) {
+        var blake = new Blake2bDigest(PREHASH_DIGEST_LENGTH * 8);
+
+        int[] values = {lanes, outLen, memoryKB, iterations, VERSION, TYPE};
+        Pack.intToLittleEndian(values, tmpBlockBytes, 0);
+        blake.update(tmpBlockBytes, 0, values.length * 4);
+
+        addByteString(tmpBlockBytes, blake, password);
+        addByteString(tmpBlockBytes, blake, salt);
+        addByteString(tmpBlockBytes, blake, null); // Secret
+        addByteString(tmpBlockBytes, blake, null); // Additional data
+
+        var initialHashWithZeros = new byte[PREHASH_SEED_LENGTH];
+        blake.doFinal(initialHashWithZeros, 0);
+
+        var initialHashWithOnes = new byte[PREHASH_SEED_LENGTH];
+        System.arraycopy(initialHashWithZeros, 0, initialHashWithOnes, 0, PREHASH_DIGEST_LENGTH);
+        initialHashWithOnes[PREHASH_DIGEST_LENGTH] = 1;
+
+        for (var lane = 0; lane < lanes; lane++) {
+            Pack.intToLittleEndian(lane, initialHashWithZeros, PREHASH_DIGEST_LENGTH + 4);
+            Pack.intToLittleEndian(lane, initialHashWithOnes, PREHASH_DIGEST_LENGTH + 4);
+
+            hash(initialHashWithZeros, tmpBlockBytes, 0, BLOCK_SIZE);
+            Pack.littleEndianToLong(tmpBlockBytes, 0, memory, lane * laneLength * QWORDS_IN_BLOCK, QWORDS_IN_BLOCK);
+
+            hash(initialHashWithOnes, tmpBlockBytes, 0, BLOCK_SIZE);
+            Pack.littleEndianToLong(tmpBlockBytes, 0, memory, (lane * laneLength + 1) * QWORDS_IN_BLOCK, QWORDS_IN_BLOCK);
+        }
+
+        Arrays.fill(initialHashWithZeros, (byte) 0);
+        Arrays.fill(initialHashWithOnes, (byte) 0);
+    }
+
+    private static void addByteString(byte[] tmpBlockBytes, Blake2bDigest digest, byte[] octets) {
+        var length = octets == null ? 0 : octets.length;
+        Pack.intToLittleEndian(length, tmpBlockBytes, 0);
+        digest.update(tmpBlockBytes, 0, 4);
+        if (octets != null)
+            digest.update(octets, 0, octets.length);
+    }
+
+    /**
+     * XOR of the last block of every lane, hashed to the output length
+     **/
+    private void digest(byte[] tmpBlockBytes, byte[] out, long[] memory) {
+        var finalBlock = new long[QWORDS_IN_BLOCK];
+        System.arraycopy(memory, (laneLength - 1) * QWORDS_IN_BLOCK, finalBlock, 0, QWORDS_IN_BLOCK);
+
+        for (var lane = 1; lane < lanes; lane++) {
+            var lastBlockInLane = (lane * laneLength + laneLength - 1) * QWORDS_IN_BLOCK;
+            for (var i = 0; i < QWORDS_IN_BLOCK; i++) {
+                finalBlock[i] ^= memory[lastBlockInLane + i];
+            }
+        }
+
+        Pack.longToLittleEndian(finalBlock, tmpBlockBytes, 0);
+        Arrays.fill(finalBlock, 0);
+        hash(tmpBlockBytes, out, 0, out.length);
+    }
+
+    /**
+     * H' - variable length hash function
+     **/
+    private static void hash(byte[] input, byte[] out, int outOff, int outLen) {
+        var outLenBytes = new byte[4];
+        Pack.intToLittleEndian(outLen, outLenBytes, 0);
+
+        var blake2bLength = 64;
+
+        if (outLen <= blake2bLength) {
+            var blake = new Blake2bDigest(outLen * 8);
+            blake.update(outLenBytes, 0, outLenBytes.length);
+            blake.update(input, 0, input.length);
+            blake.doFinal(out, outOff);
+            return;
+        }
+
+        var digest = new Blake2bDigest(blake2bLength * 8);
+        var outBuffer = new byte[blake2bLength];
+
+        digest.update(outLenBytes, 0, outLenBytes.length);
+        digest.update(input, 0, input.length);
+        digest.doFinal(outBuffer, 0);
+
+        var halfLen = blake2bLength / 2;
+        var outPos = outOff;
+        System.arraycopy(outBuffer, 0, out, outPos, halfLen);
+        outPos += halfLen;
+
+        var r = ((outLen + 31) / 32) - 2;
+
+        for (var i = 2; i <= r; i++, outPos += halfLen) {
+            digest.update(outBuffer, 0, outBuffer.length);
+            digest.doFinal(outBuffer, 0);
+            System.arraycopy(outBuffer, 0, out, outPos, halfLen);
+        }
+
+        var lastLength = outLen - 32 * r;
+        digest = new Blake2bDigest(lastLength * 8);
+        digest.update(outBuffer, 0, outBuffer.length);
+        digest.doFinal(out, outPos);
+    }
+
+    /**
+     * Scratch blocks of one filling thread
+     **/
+    private static class Filler {
+
+        private final long[] r = new long[QWORDS_IN_BLOCK];
+        private final long[] z = new long[QWORDS_IN_BLOCK];
+        private final long[] address = new long[QWORDS_IN_BLOCK];
+        private final long[] input = new long[QWORDS_IN_BLOCK];
+
+        private void nextAddresses() {
+            input[6]++;
+            compress(input, address);
+            compress(address, address);
+        }
+
+        /**
+         * current = Y ^ P(Y)
+         **/
+        private void compress(long[] y, long[] current) {
+            System.arraycopy(y, 0, z, 0, QWORDS_IN_BLOCK);
+            BlaMka.permute(z);
+            for (var i = 0; i < QWORDS_IN_BLOCK; i++) {
+                current[i] = y[i] ^ z[i];
+            }
+        }
+
+        /**
+         * current (^)= R ^ P(R), with R = X ^ Y
+         **/
+        private void fillBlock(long[] memory, int x, int y, int current, boolean withXor) {
+            for (var i = 0; i < QWORDS_IN_BLOCK; i++) {
+                r[i] = memory[x + i] ^ memory[y + i];
+            }
+            System.arraycopy(r, 0, z, 0, QWORDS_IN_BLOCK);
+            BlaMka.permute(z);
+
+            if (withXor) {
+                for (var i = 0; i < QWORDS_IN_BLOCK; i++) {
+                    memory[current + i] ^= r[i] ^ z[i];
+                }
+            } else {
+                for (var i = 0; i < QWORDS_IN_BLOCK; i++) {
+                    memory[current + i] = r[i] ^ z[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ilmatty98.crypto;
+
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * Argon2id hash in the PHC string format, e.g. $argon2id$v=19$m=64000,t=3,p=4$salt$hash,
+ * where salt and hash are Base64 without padding. The string carries the parameters used to compute it.
+ **/
+public record Argon2idHash(Argon2idParameters parameters, byte[] salt, byte[] hash) {
+
+    public static final int VERSION = 19;
+
+    private static final Pattern FORMAT = Pattern.compile("\\$argon2id\\$v=(\\d+)\\$m=(\\d+),t=(\\d+),p=(\\d+)\\$([A-Za-z0-9+/]+)\\$([A-Za-z0-9+/]+)");
+
+    public static Argon2idHash decode(String encoded) {
+        var matcher = FORMAT.matcher(encoded);
+        if (!matcher.matches() || Integer.parseInt(matcher.group(1)) != VERSION)
+            throw new IllegalArgumentException("Invalid argon2id hash format");
+
+        var salt = Base64.getDecoder().decode(matcher.group(5));
+        var hash = Base64.getDecoder().decode(matcher.group(6));
+        var parameters = new Argon2idParameters(Integer.parseInt(matcher.group(3)), Integer.parseInt(matcher.group(2)),
+                Integer.parseInt(matcher.group(4)), hash.length);
+        return new Argon2idHash(parameters, salt, hash);
+    }
+
+    public String encode() {
+        var encoder = Base64.getEncoder().withoutPadding();
+        return String.format("$argon2id$v=%d$m=%d,t=%d,p=%d$%s$%s", VERSION, parameters.memoryKB(),
+                parameters.iterations(), parameters.parallelism(), encoder.encodeToString(salt), encoder.encodeToString(hash));
+    }
+}
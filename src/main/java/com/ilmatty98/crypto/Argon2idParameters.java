@@ -0,0 +1,7 @@
+package com.ilmatty98.crypto;
+
+/**
+ * Cost parameters of an Argon2id hash, size is the output length in bytes
+ **/
+public record Argon2idParameters(int iterations, int memoryKB, int parallelism, int size) {
+}
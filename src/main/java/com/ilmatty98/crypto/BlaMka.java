@@ -0,0 +1,59 @@
+package com.ilmatty98.crypto;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Argon2 permutation P: the Blake2b round with the BlaMka multiplication, applied to the 8 columns
+ * and then to the 8 rows of a 1 KB block seen as a 8x8 matrix of 16-byte registers
+ **/
+@UtilityClass
+class BlaMka {
+
+    private static final long M32L = 0xFFFFFFFFL;
+
+    static void permute(long[] v) {
+        for (var i = 0; i < 8; i++) {
+            var i16 = 16 * i;
+            round(v, i16, i16 + 1, i16 + 2, i16 + 3, i16 + 4, i16 + 5, i16 + 6, i16 + 7,
+                    i16 + 8, i16 + 9, i16 + 10, i16 + 11, i16 + 12, i16 + 13, i16 + 14, i16 + 15);
+        }
+
+        for (var i = 0; i < 8; i++) {
+            var i2 = 2 * i;
+            round(v, i2, i2 + 1, i2 + 16, i2 + 17, i2 + 32, i2 + 33, i2 + 48, i2 + 49,
+                    i2 + 64, i2 + 65, i2 + 80, i2 + 81, i2 + 96, i2 + 97, i2 + 112, i2 + 113);
+        }
+    }
+
+    @SuppressWarnings("java:S107")
+    private static void round(long[] v, int v0, int v1, int v2, int v3, int v4, int v5, int v6, int v7,
+                              int v8, int v9, int v10, int v11, int v12, int v13, int v14, int v15) {
+        g(v, v0, v4, v8, v12);
+        g(v, v1, v5, v9, v13);
+        g(v, v2, v6, v10, v14);
+        g(v, v3, v7, v11, v15);
+
+        g(v, v0, v5, v10, v15);
+        g(v, v1, v6, v11, v12);
+        g(v, v2, v7, v8, v13);
+        g(v, v3, v4, v9, v14);
+    }
+
+    private static void g(long[] v, int a, int b, int c, int d) {
+        quarterRound(v, a, b, d, 32);
+        quarterRound(v, c, d, b, 24);
+        quarterRound(v, a, b, d, 16);
+        quarterRound(v, c, d, b, 63);
+    }
+
+    /**
+     * x <- x + y + 2 * xL * yL, z <- (z ^ x) >>> s
+     **/
+    private static void quarterRound(long[] v, int x, int y, int z, int s) {
+        var a = v[x];
+        var b = v[y];
+        a += b + 2 * (a & M32L) * (b & M32L);
+        v[x] = a;
+        v[z] = Long.rotateRight(v[z] ^ a, s);
+    }
+}
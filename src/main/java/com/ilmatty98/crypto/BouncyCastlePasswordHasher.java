@@ -0,0 +1,15 @@
+package com.ilmatty98.crypto;
+
+import com.ilmatty98.utils.AuthenticationUtils;
+
+/**
+ * Reference engine: BouncyCastle, lanes filled sequentially and a new matrix for every hash
+ **/
+public class BouncyCastlePasswordHasher implements PasswordHasher {
+
+    @Override
+    public byte[] hash(byte[] password, byte[] salt, Argon2idParameters parameters) {
+        return AuthenticationUtils.generateArgon2id(password, salt, parameters.size(), parameters.iterations(),
+                parameters.memoryKB(), parameters.parallelism());
+    }
+}
@@ -0,0 +1,238 @@
+package com.ilmatty98.crypto;
+
+import com.ilmatty98.constants.TokenClaimEnum;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * JWS compact serialization of the access token claims (id, email, role, epoch, iat, exp), written byte by byte
+ * into pooled buffers: no claims map, no JSON serializer and no intermediate strings. The result is a standard JWS.
+ **/
+public class JwtWriter {
+
+    private static final byte[] BASE64URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+            .getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] ID = ascii("{\"" + TokenClaimEnum.ID.getLabel() + "\":");
+    private static final byte[] EMAIL = ascii(",\"" + TokenClaimEnum.EMAIL.getLabel() + "\":\"");
+    private static final byte[] ROLE = ascii("\",\"" + TokenClaimEnum.ROLE.getLabel() + "\":\"");
+    private static final byte[] EPOCH = ascii("\",\"" + TokenClaimEnum.EPOCH.getLabel() + "\":");
+    private static final byte[] ISSUED_AT = ascii(",\"iat\":");
+    private static final byte[] EXPIRATION = ascii(",\"exp\":");
+
+    private static final int PAYLOAD_SIZE = 256;
+
+    private final byte[] encodedHeader;
+
+    private final String jcaAlgorithm;
+
+    private final PrivateKey privateKey;
+
+    private final BlockingQueue<Buffers> pool;
+
+    public JwtWriter(String algorithm, String keyId, String jcaAlgorithm, PrivateKey privateKey) {
+        var header = ascii("{\"alg\":\"" + algorithm + "\",\"kid\":\"" + keyId + "\"}");
+        this.encodedHeader = new byte[encodedLength(header.length)];
+        encode(header, header.length, encodedHeader, 0);
+        this.jcaAlgorithm = jcaAlgorithm;
+        this.privateKey = privateKey;
+        this.pool = new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+    }
+
+    public String write(long id, String email, String role, int epoch, long issuedAt, long expiration) {
+        var buffers = pool.poll();
+        if (buffers == null)
+            buffers = new Buffers(newSignature());
+
+        try {
+            buffers.length = 0;
+            buffers.append(ID).append(id)
+                    .append(EMAIL).appendEscaped(email)
+                    .append(ROLE).appendEscaped(role)
+                    .append(EPOCH).append(epoch)
+                    .append(ISSUED_AT).append(issuedAt)
+                    .append(EXPIRATION).append(expiration)
+                    .append((byte) '}');
+
+            // header.payload is the signing input, the signature is appended to it
+            var out = buffers.output(encodedHeader.length + 1 + encodedLength(buffers.length));
+            System.arraycopy(encodedHeader, 0, out, 0, encodedHeader.length);
+            var offset = encodedHeader.length;
+            out[offset++] = '.';
+            offset = encode(buffers.payload, buffers.length, out, offset);
+
+            buffers.signature.update(out, 0, offset);
+            var signature = buffers.signature.sign();
+            out = buffers.output(offset + 1 + encodedLength(signature.length));
+            out[offset++] = '.';
+            offset = encode(signature, signature.length, out, offset);
+            return new String(out, 0, offset, StandardCharsets.US_ASCII);
+        } catch (GeneralSecurityException e) {
+            buffers = null;
+            throw new IllegalStateException("Error signing jwt token", e);
+        } finally {
+            if (buffers != null)
+                pool.offer(buffers);
+        }
+    }
+
+    private Signature newSignature() {
+        try {
+            var signature = Signature.getInstance(jcaAlgorithm);
+            signature.initSign(privateKey);
+            return signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error initializing " + jcaAlgorithm + " signature", e);
+        }
+    }
+
+    private static int encodedLength(int length) {
+        return (length * 4 + 2) / 3;
+    }
+
+    /**
+     * Base64url without padding
+     **/
+    private static int encode(byte[] src, int length, byte[] dst, int offset) {
+        var i = 0;
+        for (; i + 3 <= length; i += 3) {
+            var bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[offset++] = BASE64URL[bits >>> 18];
+            dst[offset++] = BASE64URL[(bits >>> 12) & 0x3f];
+            dst[offset++] = BASE64URL[(bits >>> 6) & 0x3f];
+            dst[offset++] = BASE64URL[bits & 0x3f];
+        }
+
+        if (length - i == 1) {
+            var bits = (src[i] & 0xff) << 16;
+            dst[offset++] = BASE64URL[bits >>> 18];
+            dst[offset++] = BASE64URL[(bits >>> 12) & 0x3f];
+        } else if (length - i == 2) {
+            var bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8;
+            dst[offset++] = BASE64URL[bits >>> 18];
+            dst[offset++] = BASE64URL[(bits >>> 12) & 0x3f];
+            dst[offset++] = BASE64URL[(bits >>> 6) & 0x3f];
+        }
+        return offset;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Reused by one token at a time, the signature keeps its private key between tokens
+     **/
+    private static final class Buffers {
+
+        private final Signature signature;
+
+        private byte[] payload = new byte[PAYLOAD_SIZE];
+
+        private byte[] output = new byte[PAYLOAD_SIZE * 4];
+
+        private int length;
+
+        private Buffers(Signature signature) {
+            this.signature = signature;
+        }
+
+        /**
+         * Grows the output buffer, keeping its content
+         **/
+        private byte[] output(int size) {
+            if (output.length < size)
+                output = Arrays.copyOf(output, Math.max(output.length * 2, size));
+            return output;
+        }
+
+        private Buffers append(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, payload, length, bytes.length);
+            length += bytes.length;
+            return this;
+        }
+
+        private Buffers append(byte value) {
+            ensure(1);
+            payload[length++] = value;
+            return this;
+        }
+
+        private Buffers append(long value) {
+            ensure(20);
+            // Digits are taken from the negative value, which also holds Long.MIN_VALUE
+            if (value < 0)
+                payload[length++] = '-';
+            else
+                value = -value;
+
+            var start = length;
+            do {
+                payload[length++] = (byte) ('0' - value % 10);
+                value /= 10;
+            } while (value != 0);
+
+            // Digits were written from the least significant one
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                var digit = payload[i];
+                payload[i] = payload[j];
+                payload[j] = digit;
+            }
+            return this;
+        }
+
+        /**
+         * JSON string content in UTF-8
+         **/
+        private Buffers appendEscaped(String value) {
+            for (var i = 0; i < value.length(); i++) {
+                ensure(6);
+                var c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    payload[length++] = '\\';
+                    payload[length++] = (byte) c;
+                } else if (c < 0x20) {
+                    payload[length++] = '\\';
+                    payload[length++] = 'u';
+                    payload[length++] = '0';
+                    payload[length++] = '0';
+                    payload[length++] = HEX[c >> 4];
+                    payload[length++] = HEX[c & 0xf];
+                } else if (c < 0x80) {
+                    payload[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    payload[length++] = (byte) (0xc0 | c >> 6);
+                    payload[length++] = (byte) (0x80 | c & 0x3f);
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    var codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    payload[length++] = (byte) (0xf0 | codePoint >> 18);
+                    payload[length++] = (byte) (0x80 | (codePoint >> 12) & 0x3f);
+                    payload[length++] = (byte) (0x80 | (codePoint >> 6) & 0x3f);
+                    payload[length++] = (byte) (0x80 | codePoint & 0x3f);
+                } else if (Character.isSurrogate(c)) {
+                    // An unpaired surrogate has no UTF-8 encoding, replaced as String.getBytes does
+                    payload[length++] = '?';
+                } else {
+                    payload[length++] = (byte) (0xe0 | c >> 12);
+                    payload[length++] = (byte) (0x80 | (c >> 6) & 0x3f);
+                    payload[length++] = (byte) (0x80 | c & 0x3f);
+                }
+            }
+            return this;
+        }
+
+        private void ensure(int size) {
+            if (length + size > payload.length)
+                payload = Arrays.copyOf(payload, Math.max(payload.length * 2, length + size));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ilmatty98.crypto;
+
+import com.sun.jna.IntegerType;
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+
+/**
+ * Native engine: the reference C implementation (libargon2) loaded at runtime.
+ * It fills the lanes with its own threads and allocates the matrix off heap.
+ **/
+@Slf4j
+@RequiredArgsConstructor
+public class NativePasswordHasher implements PasswordHasher {
+
+    private static final int ARGON2_OK = 0;
+
+    private final Argon2Library library;
+
+    /**
+     * Returns an empty optional when the library is not installed or cannot be linked
+     **/
+    public static Optional<PasswordHasher> load(String libraryName) {
+        try {
+            Argon2Library library = Native.load(libraryName, Argon2Library.class);
+            return Optional.of(new NativePasswordHasher(library));
+        } catch (Throwable e) {
+            log.warn("Unable to load native library {}: {}", libraryName, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public byte[] hash(byte[] password, byte[] salt, Argon2idParameters parameters) {
+        var hash = new byte[parameters.size()];
+        var result = library.argon2id_hash_raw(parameters.iterations(), parameters.memoryKB(), parameters.parallelism(),
+                password, new SizeT(password.length), salt, new SizeT(salt.length), hash, new SizeT(hash.length));
+
+        if (result != ARGON2_OK)
+            throw new IllegalStateException("Error generating argon2id: " + library.argon2_error_message(result));
+        return hash;
+    }
+
+    @SuppressWarnings("java:S100")
+    public interface Argon2Library extends Library {
+
+        int argon2id_hash_raw(int tCost, int mCost, int parallelism, byte[] pwd, SizeT pwdLen, byte[] salt, SizeT saltLen,
+                              byte[] hash, SizeT hashLen);
+
+        String argon2_error_message(int errorCode);
+    }
+
+    public static class SizeT extends IntegerType {
+
+        public SizeT() {
+            this(0);
+        }
+
+        public SizeT(long value) {
+            super(Native.SIZE_T_SIZE, value, true);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.ilmatty98.crypto;
+
+/**
+ * Argon2id (version 1.3) engine: every implementation must return the same bytes for the same input
+ **/
+public interface PasswordHasher {
+
+    byte[] hash(byte[] password, byte[] salt, Argon2idParameters parameters);
+}
@@ -0,0 +1,29 @@
+package com.ilmatty98.crypto;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Java engine: memory matrices leased from a pool and lanes filled concurrently on a ForkJoinPool
+ **/
+@RequiredArgsConstructor
+public class PooledPasswordHasher implements PasswordHasher {
+
+    private final Argon2MemoryPool memoryPool;
+
+    private final ForkJoinPool forkJoinPool;
+
+    @Override
+    public byte[] hash(byte[] password, byte[] salt, Argon2idParameters parameters) {
+        var generator = new Argon2idGenerator(parameters.iterations(), parameters.memoryKB(),
+                parameters.parallelism(), forkJoinPool);
+        var memoryBlocks = generator.getMemoryBlocks();
+        var matrix = memoryPool.lease(memoryBlocks);
+        try {
+            return generator.generate(password, salt, parameters.size(), matrix);
+        } finally {
+            memoryPool.release(matrix, memoryBlocks);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.ilmatty98.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class IntrospectionDto {
+
+    @NotEmpty(message = "Tokens cannot be empty")
+    private List<String> tokens;
+}
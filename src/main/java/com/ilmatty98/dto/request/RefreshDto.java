@@ -0,0 +1,11 @@
+package com.ilmatty98.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class RefreshDto {
+
+    @NotBlank(message = "RefreshToken cannot be blank")
+    private String refreshToken;
+}
@@ -9,6 +9,8 @@ public class AccessDto {
 
     private String token;
 
+    private String refreshToken;
+
     private String tokenPublicKey;
 
     private String protectedSymmetricKey;
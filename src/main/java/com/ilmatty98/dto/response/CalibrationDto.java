@@ -0,0 +1,33 @@
+package com.ilmatty98.dto.response;
+
+import lombok.Data;
+
+import java.sql.Timestamp;
+
+@Data
+public class CalibrationDto {
+
+    private String engine;
+
+    private int cores;
+
+    private long usableMemory;
+
+    private int concurrency;
+
+    private long targetLatencyMs;
+
+    private int iterations;
+
+    private int memoryKB;
+
+    private int parallelism;
+
+    private double latencyMs;
+
+    private int maxConcurrentHashes;
+
+    private double loginsPerSecond;
+
+    private Timestamp timestamp;
+}
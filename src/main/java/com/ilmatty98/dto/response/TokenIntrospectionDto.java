@@ -0,0 +1,23 @@
+package com.ilmatty98.dto.response;
+
+import lombok.Data;
+
+@Data
+public class TokenIntrospectionDto {
+
+    private boolean active;
+
+    private Long id;
+
+    private String email;
+
+    private String role;
+
+    private Integer epoch;
+
+    private Long issuedAt;
+
+    private Long expiration;
+
+    private String error;
+}
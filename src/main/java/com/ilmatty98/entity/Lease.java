@@ -0,0 +1,34 @@
+package com.ilmatty98.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.sql.Timestamp;
+
+@Data
+@Entity
+@Table(name = "leases")
+public class Lease {
+
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    @Column(name = "owner", length = 100, nullable = false)
+    private String owner;
+
+    /**
+     * Increases on every change of owner, a previous owner can no longer renew the lease
+     **/
+    @Column(name = "fencing_token", nullable = false)
+    private Long fencingToken;
+
+    @Column(name = "timestamp_acquired", nullable = false)
+    private Timestamp timestampAcquired;
+
+    @Column(name = "timestamp_heartbeat", nullable = false)
+    private Timestamp timestampHeartbeat;
+
+    @Column(name = "timestamp_expiration", nullable = false)
+    private Timestamp timestampExpiration;
+}
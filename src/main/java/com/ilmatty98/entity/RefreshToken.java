@@ -0,0 +1,37 @@
+package com.ilmatty98.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.sql.Timestamp;
+
+@Data
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Shared by all the tokens rotated from the same logIn
+     **/
+    @Column(name = "family", length = 36, nullable = false)
+    private String family;
+
+    @Column(name = "token_hash", length = 64, nullable = false, unique = true)
+    private String tokenHash;
+
+    @Column(name = "timestamp_creation", nullable = false)
+    private Timestamp timestampCreation;
+
+    @Column(name = "timestamp_expiration", nullable = false)
+    private Timestamp timestampExpiration;
+
+    @Column(name = "timestamp_used")
+    private Timestamp timestampUsed;
+}
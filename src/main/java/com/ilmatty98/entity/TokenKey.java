@@ -0,0 +1,36 @@
+package com.ilmatty98.entity;
+
+import com.ilmatty98.constants.TokenAlgorithmEnum;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.sql.Timestamp;
+
+@Data
+@Entity
+@Table(name = "token_keys")
+public class TokenKey {
+
+    /**
+     * Increases by one on every rotation, the replicas rotating at the same time race on it
+     **/
+    @Id
+    @Column(name = "generation")
+    private Long generation;
+
+    @Column(name = "key_id", length = 100, nullable = false, unique = true)
+    private String keyId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "algorithm", length = 10, nullable = false)
+    private TokenAlgorithmEnum algorithm;
+
+    @Column(name = "public_key", length = 1000, nullable = false)
+    private String publicKey;
+
+    @Column(name = "private_key", length = 4000, nullable = false)
+    private String privateKey;
+
+    @Column(name = "timestamp_creation", nullable = false)
+    private Timestamp timestampCreation;
+}
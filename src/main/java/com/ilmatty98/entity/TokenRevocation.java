@@ -0,0 +1,28 @@
+package com.ilmatty98.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.sql.Timestamp;
+
+@Data
+@Entity
+@Table(name = "token_revocations")
+public class TokenRevocation {
+
+    /**
+     * Not a foreign key, the revocation outlives a deleted user
+     **/
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * Tokens with a lower epoch are revoked
+     **/
+    @Column(name = "epoch", nullable = false)
+    private Integer epoch;
+
+    @Column(name = "timestamp_revocation", nullable = false)
+    private Timestamp timestampRevocation;
+}
@@ -19,10 +19,7 @@ public class User {
     @Column(name = "email", length = 100, nullable = false, unique = true)
     private String email;
 
-    @Column(name = "salt", length = 500, nullable = false)
-    private String salt;
-
-    @Column(name = "hash", length = 500, nullable = false)
+    @Column(name = "hash", length = 1000, nullable = false)
     private String hash;
 
     @Column(name = "protected_symmetric_key", length = 500, nullable = false)
@@ -10,7 +10,6 @@ import org.mapstruct.Named;
 
 import java.sql.Timestamp;
 import java.util.Base64;
-import java.util.UUID;
 
 @Mapper(componentModel = "cdi")
 public interface AuthenticationMapper {
@@ -27,14 +26,14 @@ public interface AuthenticationMapper {
     @Mapping(target = "timestampPassword", source = "timestamp")
     @Mapping(target = "timestampCreation", source = "timestamp")
     @Mapping(target = "timestampLastAccess", source = "timestamp")
-    @Mapping(target = "verificationCode", expression = "java(getUUID())")
-    @Mapping(target = "salt", source = "salt", qualifiedByName = "base64Encoding")
-    @Mapping(target = "hash", source = "hash", qualifiedByName = "base64Encoding")
+    @Mapping(target = "verificationCode", source = "verificationCode")
+    @Mapping(target = "hash", source = "hash")
     @Mapping(target = "initializationVector", source = "signUpDto.initializationVector", qualifiedByName = "base64EncodingString")
     @Mapping(target = "protectedSymmetricKey", source = "signUpDto.protectedSymmetricKey", qualifiedByName = "base64EncodingString")
-    User newUser(SignUpDto signUpDto, byte[] salt, byte[] hash, Timestamp timestamp, UserStateEnum userStateEnum);
+    User newUser(SignUpDto signUpDto, String hash, String verificationCode, Timestamp timestamp, UserStateEnum userStateEnum);
 
     @Mapping(target = "token", source = "token")
+    @Mapping(target = "refreshToken", source = "refreshToken")
     @Mapping(target = "hint", source = "user.hint")
     @Mapping(target = "propic", source = "user.propic")
     @Mapping(target = "tokenPublicKey", source = "tokenPublicKey")
@@ -44,7 +43,7 @@ public interface AuthenticationMapper {
     @Mapping(target = "timestampLastAccess", source = "user.timestampLastAccess")
     @Mapping(target = "initializationVector", source = "user.initializationVector", qualifiedByName = "base64DecodingString")
     @Mapping(target = "protectedSymmetricKey", source = "user.protectedSymmetricKey", qualifiedByName = "base64DecodingString")
-    AccessDto newAccessDto(User user, String token, String tokenPublicKey);
+    AccessDto newAccessDto(User user, String token, String tokenPublicKey, String refreshToken);
 
     @Named("base64Encoding")
     default String base64Encoding(byte[] input) {
@@ -66,10 +65,5 @@ public interface AuthenticationMapper {
         return input != null ? new String(base64Decoding(input)) : null;
     }
 
-    @Named("getUUID")
-    default String getUUID() {
-        return UUID.randomUUID().toString();
-    }
-
 
-}
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.ilmatty98.repository;
+
+import com.ilmatty98.entity.Lease;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.PersistenceException;
+import jakarta.transaction.Transactional;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Timestamps are always taken from the database clock, the clocks of the instances may drift apart
+ **/
+@ApplicationScoped
+public class LeaseRepository implements PanacheRepositoryBase<Lease, String> {
+
+    @Transactional
+    public Optional<Lease> findByName(String name) {
+        return findByIdOptional(name);
+    }
+
+    /**
+     * Returns false when the lease has been taken over since the fencing token was obtained
+     **/
+    @Transactional
+    public boolean renew(String name, String owner, long fencingToken, Duration leaseDuration) {
+        return update("timestampHeartbeat = current_timestamp, timestampExpiration = current_timestamp + ?1 nanosecond " +
+                "where name = ?2 and owner = ?3 and fencingToken = ?4", leaseDuration.toNanos(), name, owner, fencingToken) == 1;
+    }
+
+    @Transactional
+    public boolean takeOverExpired(String name, String owner, Duration leaseDuration) {
+        return update("owner = ?1, fencingToken = fencingToken + 1, timestampAcquired = current_timestamp, " +
+                "timestampHeartbeat = current_timestamp, timestampExpiration = current_timestamp + ?2 nanosecond " +
+                "where name = ?3 and timestampExpiration < current_timestamp", owner, leaseDuration.toNanos(), name) == 1;
+    }
+
+    /**
+     * Returns false when another instance has already created the lease.
+     * The lease is created already expired and then taken over, so its timestamps only come from the database clock
+     **/
+    public boolean create(Lease lease) {
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                persist(lease);
+                flush();
+            });
+            return true;
+        } catch (PersistenceException e) {
+            return false;
+        }
+    }
+
+    @Transactional
+    public void release(String name, String owner, long fencingToken) {
+        update("timestampExpiration = current_timestamp where name = ?1 and owner = ?2 and fencingToken = ?3", name, owner, fencingToken);
+    }
+}
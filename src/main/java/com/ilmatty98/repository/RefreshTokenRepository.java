@@ -0,0 +1,35 @@
+package com.ilmatty98.repository;
+
+import com.ilmatty98.entity.RefreshToken;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.sql.Timestamp;
+import java.util.Optional;
+
+@ApplicationScoped
+public class RefreshTokenRepository implements PanacheRepository<RefreshToken> {
+
+    public Optional<RefreshToken> findByTokenHash(String tokenHash) {
+        return find("tokenHash", tokenHash).firstResultOptional();
+    }
+
+    /**
+     * Returns false when the token had already been used
+     **/
+    public boolean markUsed(Long id, Timestamp timestamp) {
+        return update("timestampUsed = ?1 where id = ?2 and timestampUsed is null", timestamp, id) == 1;
+    }
+
+    public long deleteByFamily(String family) {
+        return delete("family", family);
+    }
+
+    public long deleteByUserId(Long userId) {
+        return delete("userId", userId);
+    }
+
+    public long deleteExpired(Timestamp timestamp) {
+        return delete("timestampExpiration < ?1", timestamp);
+    }
+}
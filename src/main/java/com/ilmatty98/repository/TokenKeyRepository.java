@@ -0,0 +1,43 @@
+package com.ilmatty98.repository;
+
+import com.ilmatty98.entity.TokenKey;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.PersistenceException;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+@Slf4j
+@ApplicationScoped
+public class TokenKeyRepository implements PanacheRepository<TokenKey>, TokenKeyStore {
+
+    @Override
+    @Transactional
+    public List<TokenKey> findLatest(int count) {
+        return findAll(Sort.descending("generation")).page(0, count).list();
+    }
+
+    @Override
+    public boolean create(TokenKey tokenKey) {
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                persist(tokenKey);
+                flush();
+            });
+            return true;
+        } catch (PersistenceException e) {
+            log.info("Token key generation {} already created", tokenKey.getGeneration());
+            return false;
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteBefore(long generation) {
+        delete("generation < ?1", generation);
+    }
+}
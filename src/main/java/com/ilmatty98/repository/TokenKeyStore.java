@@ -0,0 +1,23 @@
+package com.ilmatty98.repository;
+
+import com.ilmatty98.entity.TokenKey;
+
+import java.util.List;
+
+/**
+ * Signing keys shared by all the replicas
+ **/
+public interface TokenKeyStore {
+
+    /**
+     * Most recent keys first
+     **/
+    List<TokenKey> findLatest(int count);
+
+    /**
+     * Returns false when another replica has already created a key with the same generation
+     **/
+    boolean create(TokenKey tokenKey);
+
+    void deleteBefore(long generation);
+}
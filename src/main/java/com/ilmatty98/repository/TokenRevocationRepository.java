@@ -0,0 +1,16 @@
+package com.ilmatty98.repository;
+
+import com.ilmatty98.entity.TokenRevocation;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@ApplicationScoped
+public class TokenRevocationRepository implements PanacheRepositoryBase<TokenRevocation, Long> {
+
+    public List<TokenRevocation> findRevokedSince(Timestamp timestamp) {
+        return list("timestampRevocation >= ?1", timestamp);
+    }
+}
@@ -22,8 +22,15 @@ public class UserRepository implements PanacheRepository<User> {
         return find("email = ?1 and state = ?2", email, state).firstResultOptional();
     }
 
-    public Optional<User> findByEmailAndNewEmailAndState(String email, String newEmail, UserStateEnum state) {
-        return find("email = ?1 and newEmail = ?2 and state = ?3", email, newEmail, state).firstResultOptional();
+    /**
+     * Primary key lookup, served by the persistence context when the user is already loaded: the state is checked in memory
+     **/
+    public Optional<User> findByIdAndState(Long id, UserStateEnum state) {
+        return findByIdOptional(id).filter(user -> user.getState() == state);
+    }
+
+    public Optional<User> findByIdAndNewEmailAndState(Long id, String newEmail, UserStateEnum state) {
+        return findByIdAndState(id, state).filter(user -> newEmail.equals(user.getNewEmail()));
     }
 
     public Optional<User> findByEmailAndVerificationCode(String email, String code) {
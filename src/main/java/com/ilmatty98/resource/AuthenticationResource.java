@@ -1,28 +1,28 @@
 package com.ilmatty98.resource;
 
-import com.ilmatty98.constants.TokenClaimEnum;
 import com.ilmatty98.dto.request.*;
 import com.ilmatty98.dto.response.AccessDto;
-import com.ilmatty98.interceptor.BearerAuthenticated;
+import com.ilmatty98.security.AuthenticatedUser;
+import com.ilmatty98.security.BearerAuthenticated;
 import com.ilmatty98.service.AuthenticationService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
-import jakarta.ws.rs.container.ContainerRequestContext;
-import jakarta.ws.rs.core.Context;
 import lombok.RequiredArgsConstructor;
 import org.eclipse.microprofile.openapi.annotations.parameters.RequestBody;
 import org.jboss.resteasy.reactive.RestPath;
 
-import java.util.Optional;
-
 import static com.ilmatty98.constants.UrlConstants.*;
 
+@RunOnVirtualThread
 @RequiredArgsConstructor
 @Path(BASE_PATH_AUTHENTICATION)
 public class AuthenticationResource {
 
     private final AuthenticationService authenticationService;
 
+    private final AuthenticatedUser authenticatedUser;
+
     @POST
     @Path(SIGN_UP)
     public boolean signUp(@Valid @RequestBody SignUpDto signUpDto) {
@@ -35,6 +35,12 @@ public class AuthenticationResource {
         return authenticationService.logIn(logInDto);
     }
 
+    @POST
+    @Path(REFRESH)
+    public AccessDto refresh(@Valid @RequestBody RefreshDto refreshDto) {
+        return authenticationService.refresh(refreshDto);
+    }
+
     @GET
     @Path(CHECK_EMAIL)
     public boolean checkEmail(@RestPath String email) {
@@ -50,10 +56,8 @@ public class AuthenticationResource {
     @PUT
     @BearerAuthenticated
     @Path(CHANGE_PASSWORD)
-    public boolean changePassword(@Valid @RequestBody ChangePasswordDto changePasswordDto,
-                                  @Context ContainerRequestContext containerRequestContext) {
-        var email = getEmailFromContext(containerRequestContext);
-        return authenticationService.changePassword(changePasswordDto, email);
+    public boolean changePassword(@Valid @RequestBody ChangePasswordDto changePasswordDto) {
+        return authenticationService.changePassword(changePasswordDto, authenticatedUser.getId());
     }
 
     @POST
@@ -65,35 +69,21 @@ public class AuthenticationResource {
     @DELETE
     @BearerAuthenticated
     @Path(DELETE_ACCOUNT)
-    public boolean deleteAccount(@Valid @RequestBody DeleteDto deleteDto,
-                                 @Context ContainerRequestContext containerRequestContext) {
-        var email = getEmailFromContext(containerRequestContext);
-        return authenticationService.deleteAccount(email, deleteDto);
+    public boolean deleteAccount(@Valid @RequestBody DeleteDto deleteDto) {
+        return authenticationService.deleteAccount(authenticatedUser.getId(), deleteDto);
     }
 
     @PUT
     @BearerAuthenticated
     @Path(CHANGE_EMAIL)
-    public boolean changeEmail(@Valid @RequestBody ChangeEmailDto changeEmailDto,
-                               @Context ContainerRequestContext containerRequestContext) {
-        var email = getEmailFromContext(containerRequestContext);
-        return authenticationService.changeEmail(changeEmailDto, email);
+    public boolean changeEmail(@Valid @RequestBody ChangeEmailDto changeEmailDto) {
+        return authenticationService.changeEmail(changeEmailDto, authenticatedUser.getId());
     }
 
     @PUT
     @BearerAuthenticated
     @Path(CONFIRM_CHANGE_EMAIL)
-    public boolean confirmChangeEmail(@Valid @RequestBody ConfirmChangeEmailDto confirmChangeEmailDto,
-                                      @Context ContainerRequestContext containerRequestContext) {
-        var email = getEmailFromContext(containerRequestContext);
-        return authenticationService.confirmChangeEmail(confirmChangeEmailDto, email);
+    public boolean confirmChangeEmail(@Valid @RequestBody ConfirmChangeEmailDto confirmChangeEmailDto) {
+        return authenticationService.confirmChangeEmail(confirmChangeEmailDto, authenticatedUser.getId());
     }
-
-
-    private String getEmailFromContext(ContainerRequestContext requestContext) {
-        return Optional.ofNullable(requestContext.getProperty(TokenClaimEnum.EMAIL.getLabel()))
-                .map(Object::toString)
-                .orElseThrow(() -> new NotAuthorizedException("Missing email in request context"));
-    }
-
 }
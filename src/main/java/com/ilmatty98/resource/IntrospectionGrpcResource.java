@@ -0,0 +1,56 @@
+package com.ilmatty98.resource;
+
+import com.ilmatty98.dto.response.TokenIntrospectionDto;
+import com.ilmatty98.grpc.IntrospectRequest;
+import com.ilmatty98.grpc.IntrospectResponse;
+import com.ilmatty98.grpc.TokenIntrospection;
+import com.ilmatty98.grpc.TokenResult;
+import com.ilmatty98.security.IntrospectionClientInterceptor;
+import com.ilmatty98.service.TokenIntrospectionService;
+import io.grpc.Status;
+import io.quarkus.grpc.GrpcService;
+import io.quarkus.grpc.RegisterInterceptor;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.BadRequestException;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Objects;
+
+/**
+ * Same introspection as the JSON endpoint, in protobuf for the internal callers, with the same client secret
+ **/
+@GrpcService
+@RequiredArgsConstructor
+@RegisterInterceptor(IntrospectionClientInterceptor.class)
+public class IntrospectionGrpcResource implements TokenIntrospection {
+
+    private final TokenIntrospectionService tokenIntrospectionService;
+
+    @Override
+    @RunOnVirtualThread
+    public Uni<IntrospectResponse> introspect(IntrospectRequest request) {
+        try {
+            var response = IntrospectResponse.newBuilder();
+            tokenIntrospectionService.introspect(request.getTokensList())
+                    .forEach(r -> response.addResults(toTokenResult(r)));
+            return Uni.createFrom().item(response.build());
+        } catch (BadRequestException e) {
+            return Uni.createFrom().failure(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+        }
+    }
+
+    private static TokenResult toTokenResult(TokenIntrospectionDto tokenIntrospectionDto) {
+        // Protobuf has no null fields, absent values are the defaults
+        return TokenResult.newBuilder()
+                .setActive(tokenIntrospectionDto.isActive())
+                .setId(Objects.requireNonNullElse(tokenIntrospectionDto.getId(), 0L))
+                .setEmail(Objects.requireNonNullElse(tokenIntrospectionDto.getEmail(), ""))
+                .setRole(Objects.requireNonNullElse(tokenIntrospectionDto.getRole(), ""))
+                .setEpoch(Objects.requireNonNullElse(tokenIntrospectionDto.getEpoch(), 0))
+                .setIssuedAt(Objects.requireNonNullElse(tokenIntrospectionDto.getIssuedAt(), 0L))
+                .setExpiration(Objects.requireNonNullElse(tokenIntrospectionDto.getExpiration(), 0L))
+                .setError(Objects.requireNonNullElse(tokenIntrospectionDto.getError(), ""))
+                .build();
+    }
+}
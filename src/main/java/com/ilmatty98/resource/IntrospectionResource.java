@@ -0,0 +1,32 @@
+package com.ilmatty98.resource;
+
+import com.ilmatty98.dto.request.IntrospectionDto;
+import com.ilmatty98.dto.response.TokenIntrospectionDto;
+import com.ilmatty98.security.IntrospectionClientAuthenticated;
+import com.ilmatty98.service.TokenIntrospectionService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import lombok.RequiredArgsConstructor;
+import org.eclipse.microprofile.openapi.annotations.parameters.RequestBody;
+
+import java.util.List;
+
+import static com.ilmatty98.constants.UrlConstants.BASE_PATH_INTROSPECTION;
+import static com.ilmatty98.constants.UrlConstants.INTROSPECT;
+
+@RunOnVirtualThread
+@RequiredArgsConstructor
+@IntrospectionClientAuthenticated
+@Path(BASE_PATH_INTROSPECTION)
+public class IntrospectionResource {
+
+    private final TokenIntrospectionService tokenIntrospectionService;
+
+    @POST
+    @Path(INTROSPECT)
+    public List<TokenIntrospectionDto> introspect(@Valid @RequestBody IntrospectionDto introspectionDto) {
+        return tokenIntrospectionService.introspect(introspectionDto.getTokens());
+    }
+}
@@ -0,0 +1,40 @@
+package com.ilmatty98.resource;
+
+import com.ilmatty98.dto.response.CalibrationDto;
+import com.ilmatty98.security.ManagementClientAuthenticated;
+import com.ilmatty98.service.CalibrationService;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import lombok.RequiredArgsConstructor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import static com.ilmatty98.constants.UrlConstants.BASE_PATH_MANAGEMENT;
+import static com.ilmatty98.constants.UrlConstants.CALIBRATION;
+
+@RequiredArgsConstructor
+@ManagementClientAuthenticated
+@Path(BASE_PATH_MANAGEMENT)
+public class ManagementResource {
+
+    @ConfigProperty(name = "encryption.argon2id.calibration.endpoint-enabled")
+    boolean calibrationEndpointEnabled;
+
+    private final CalibrationService calibrationService;
+
+    @GET
+    @Path(CALIBRATION)
+    public CalibrationDto getCalibration() {
+        return calibrationService.getLastCalibration().orElseThrow(NotFoundException::new);
+    }
+
+    @POST
+    @Path(CALIBRATION)
+    public CalibrationDto calibrate() {
+        // A calibration takes the hashing capacity for several seconds
+        if (!calibrationEndpointEnabled)
+            throw new NotFoundException();
+        return calibrationService.calibrate();
+    }
+}
@@ -0,0 +1,56 @@
+package com.ilmatty98.resource;
+
+import com.ilmatty98.service.TokenJwtService;
+import io.quarkus.scheduler.Scheduler;
+import io.quarkus.scheduler.Trigger;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.*;
+import lombok.RequiredArgsConstructor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static com.ilmatty98.constants.UrlConstants.BASE_PATH_WELL_KNOWN;
+import static com.ilmatty98.constants.UrlConstants.JWKS;
+
+@RequiredArgsConstructor
+@Path(BASE_PATH_WELL_KNOWN)
+public class WellKnownResource {
+
+    @ConfigProperty(name = "token.jwks.max-age")
+    Duration maxAge;
+
+    private final TokenJwtService tokenJwtService;
+
+    private final Scheduler scheduler;
+
+    @GET
+    @Path(JWKS)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getJwks(@Context Request request) {
+        var jwks = tokenJwtService.getJwks();
+        var tag = new EntityTag(jwks.tag());
+
+        // The key set changes on rotation, but this replica may still serve the previous one for a refresh interval
+        // after it: the max age is capped, so consumers never keep a key set without the new key for long
+        var cacheControl = new CacheControl();
+        getNextRotation().ifPresentOrElse(
+                next -> cacheControl.setMaxAge((int) Math.clamp(Duration.between(Instant.now(), next).toSeconds(), 0, maxAge.toSeconds())),
+                () -> cacheControl.setNoCache(true));
+
+        return Optional.ofNullable(request.evaluatePreconditions(tag))
+                .orElseGet(() -> Response.ok(jwks.json()))
+                .tag(tag)
+                .cacheControl(cacheControl)
+                .build();
+    }
+
+    private Optional<Instant> getNextRotation() {
+        return Optional.ofNullable(scheduler.getScheduledJob(TokenJwtService.KEY_ROTATION_JOB))
+                .map(Trigger::getNextFireTime);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ilmatty98.security;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.ws.rs.NotAuthorizedException;
+import lombok.Getter;
+
+import java.security.Principal;
+
+/**
+ * User of the bearer token of the current request, set by {@link BearerTokenFilter}
+ **/
+@Getter
+@RequestScoped
+public class AuthenticatedUser implements Principal {
+
+    private Long id;
+
+    private String email;
+
+    private String role;
+
+    void authenticate(Long id, String email, String role) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+    }
+
+    /**
+     * Email of the token, the endpoint is not reachable without it
+     **/
+    @Override
+    public String getName() {
+        if (email == null)
+            throw new NotAuthorizedException("Missing email in request context");
+        return email;
+    }
+}
@@ -1,13 +1,16 @@
-package com.ilmatty98.interceptor;
+package com.ilmatty98.security;
 
-import jakarta.interceptor.InterceptorBinding;
+import jakarta.ws.rs.NameBinding;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
-@InterceptorBinding
+/**
+ * Endpoints reachable only with a valid bearer token, checked by {@link BearerTokenFilter}
+ **/
+@NameBinding
 @Target({ElementType.METHOD, ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface BearerAuthenticated {
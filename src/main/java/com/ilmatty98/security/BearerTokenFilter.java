@@ -0,0 +1,68 @@
+package com.ilmatty98.security;
+
+import com.ilmatty98.constants.TokenClaimEnum;
+import com.ilmatty98.service.TokenIntrospectionService;
+import io.quarkus.arc.ClientProxy;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.core.http.HttpServerRequest;
+import jakarta.ws.rs.NotAuthorizedException;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.HttpHeaders;
+import lombok.RequiredArgsConstructor;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+
+import java.util.Map;
+
+/**
+ * Bearer authentication before the request body is read: an unauthenticated request is rejected without buffering,
+ * parsing or validating its body. The header is checked on the I/O thread, the token is verified on a worker thread.
+ **/
+@RequiredArgsConstructor
+public class BearerTokenFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final TokenIntrospectionService tokenIntrospectionService;
+
+    private final AuthenticatedUser authenticatedUser;
+
+    @BearerAuthenticated
+    @ServerRequestFilter(nonBlocking = true)
+    public Uni<Void> authenticate(ContainerRequestContext containerRequestContext, HttpServerRequest request) {
+        var authorizationHeader = containerRequestContext.getHeaderString(HttpHeaders.AUTHORIZATION);
+        if (authorizationHeader == null || !authorizationHeader.startsWith(BEARER)) {
+            discardBody(request);
+            throw new NotAuthorizedException("Missing or invalid Authorization header");
+        }
+
+        var token = authorizationHeader.substring(BEARER.length()).trim();
+
+        // The request context is not active on the worker thread: the user of this request is resolved here
+        var user = ClientProxy.unwrap(authenticatedUser);
+
+        // Signature verification and keyring reload do not run on the I/O thread, the verified tokens are served by the cache
+        return Uni.createFrom().item(() -> tokenIntrospectionService.validate(token))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
+                .invoke(claims -> authenticate(user, claims))
+                .onFailure(NotAuthorizedException.class).invoke(() -> discardBody(request))
+                .replaceWithVoid();
+    }
+
+    private static void authenticate(AuthenticatedUser user, Map<String, Object> claims) {
+        if (!(claims.get(TokenClaimEnum.ID.getLabel()) instanceof Number id)
+                || !(claims.get(TokenClaimEnum.EMAIL.getLabel()) instanceof String email))
+            throw new NotAuthorizedException("Invalid token");
+
+        user.authenticate(id.longValue(), email, (String) claims.get(TokenClaimEnum.ROLE.getLabel()));
+    }
+
+    /**
+     * The body still being sent is discarded as it arrives: the client gets the response and the connection stays usable
+     **/
+    private static void discardBody(HttpServerRequest request) {
+        if (!request.isEnded())
+            request.handler(buffer -> {
+            }).resume();
+    }
+}
@@ -0,0 +1,44 @@
+package com.ilmatty98.security;
+
+import io.vertx.core.http.HttpServerRequest;
+import jakarta.ws.rs.NotAuthorizedException;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.HttpHeaders;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Client authentication of the introspection endpoint: the caller sends the client secret as bearer credential (RFC 7662).
+ * Without it the endpoint would let anyone check tokens in bulk and read their claims.
+ **/
+public class IntrospectionClientFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    @ConfigProperty(name = "introspection.client-secret")
+    String clientSecret;
+
+    @IntrospectionClientAuthenticated
+    @ServerRequestFilter(nonBlocking = true)
+    public void authenticate(ContainerRequestContext containerRequestContext, HttpServerRequest request) {
+        if (!isClientSecret(clientSecret, containerRequestContext.getHeaderString(HttpHeaders.AUTHORIZATION))) {
+            // The body still being sent is discarded as it arrives, as in BearerTokenFilter
+            if (!request.isEnded())
+                request.handler(buffer -> {
+                }).resume();
+            throw new NotAuthorizedException("Missing or invalid introspection client credential");
+        }
+    }
+
+    /**
+     * Constant time comparison, the secret is not guessable byte by byte
+     **/
+    static boolean isClientSecret(String clientSecret, String authorization) {
+        return authorization != null && authorization.startsWith(BEARER)
+                && MessageDigest.isEqual(clientSecret.getBytes(StandardCharsets.UTF_8),
+                authorization.substring(BEARER.length()).trim().getBytes(StandardCharsets.UTF_8));
+    }
+}
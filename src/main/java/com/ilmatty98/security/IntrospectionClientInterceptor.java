@@ -0,0 +1,32 @@
+package com.ilmatty98.security;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Client authentication of the gRPC introspection, with the same client secret as the JSON endpoint
+ * in the authorization metadata: being internal to the cluster does not make a caller trusted
+ **/
+@ApplicationScoped
+public class IntrospectionClientInterceptor implements ServerInterceptor {
+
+    private static final Metadata.Key<String> AUTHORIZATION = Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+
+    @ConfigProperty(name = "introspection.client-secret")
+    String clientSecret;
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers, ServerCallHandler<Q, R> next) {
+        if (!IntrospectionClientFilter.isClientSecret(clientSecret, headers.get(AUTHORIZATION))) {
+            call.close(Status.UNAUTHENTICATED.withDescription("Missing or invalid introspection client credential"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        return next.startCall(call, headers);
+    }
+}
@@ -0,0 +1,17 @@
+package com.ilmatty98.security;
+
+import jakarta.ws.rs.NameBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Endpoints reachable only by the operators holding the management client secret, checked by {@link ManagementClientFilter}
+ **/
+@NameBinding
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ManagementClientAuthenticated {
+}
@@ -0,0 +1,24 @@
+package com.ilmatty98.security;
+
+import jakarta.ws.rs.NotAuthorizedException;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.HttpHeaders;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+
+/**
+ * Client authentication of the management endpoints, which share the public port:
+ * the caller sends the management client secret as bearer credential
+ **/
+public class ManagementClientFilter {
+
+    @ConfigProperty(name = "management.client-secret")
+    String clientSecret;
+
+    @ManagementClientAuthenticated
+    @ServerRequestFilter(nonBlocking = true)
+    public void authenticate(ContainerRequestContext containerRequestContext) {
+        if (!IntrospectionClientFilter.isClientSecret(clientSecret, containerRequestContext.getHeaderString(HttpHeaders.AUTHORIZATION)))
+            throw new NotAuthorizedException("Missing or invalid management client credential");
+    }
+}
@@ -1,14 +1,12 @@
 package com.ilmatty98.service;
 
 import com.ilmatty98.constants.EmailTypeEnum;
-import com.ilmatty98.constants.TokenClaimEnum;
 import com.ilmatty98.constants.UserStateEnum;
 import com.ilmatty98.dto.request.*;
 import com.ilmatty98.dto.response.AccessDto;
 import com.ilmatty98.entity.User;
 import com.ilmatty98.mapper.AuthenticationMapper;
 import com.ilmatty98.repository.UserRepository;
-import com.ilmatty98.utils.AuthenticationUtils;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.BadRequestException;
@@ -18,13 +16,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
-import java.security.SecureRandom;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import static java.util.Map.entry;
 
@@ -33,24 +28,14 @@ import static java.util.Map.entry;
 @RequiredArgsConstructor
 public class AuthenticationService {
 
+    private static final int VERIFICATION_CODE_LENGTH = 6;
+
     @ConfigProperty(name = "fe.endpoint")
     String endpointFe;
 
     @ConfigProperty(name = "encryption.salt.size")
     int saltSize;
 
-    @ConfigProperty(name = "encryption.argon2id.size")
-    int argon2idSize;
-
-    @ConfigProperty(name = "encryption.argon2id.iterations")
-    int argon2idIterations;
-
-    @ConfigProperty(name = "encryption.argon2id.memoryKB")
-    int argon2idMemoryKB;
-
-    @ConfigProperty(name = "encryption.argon2id.parallelism")
-    int argon2idParallelism;
-
     @ConfigProperty(name = "change-email.expiration-minutes")
     int emailChangeExpirationMn;
 
@@ -59,8 +44,18 @@ public class AuthenticationService {
 
     private final EmailService emailService;
 
+    private final HashingService hashingService;
+
+    private final CredentialCacheService credentialCacheService;
+
+    private final RandomService randomService;
+
+    private final RefreshTokenService refreshTokenService;
+
     private final TokenJwtService tokenJwtService;
 
+    private final TokenRevocationService tokenRevocationService;
+
     private final UserRepository userRepository;
 
     private final AuthenticationMapper authenticationMapper;
@@ -73,11 +68,9 @@ public class AuthenticationService {
             throw new BadRequestException();
         }
 
-        var salt = AuthenticationUtils.generateSalt(saltSize);
-        var hash = AuthenticationUtils.generateArgon2id(signUpDto.getMasterPasswordHash(), salt, argon2idSize,
-                argon2idIterations, argon2idMemoryKB, argon2idParallelism);
+        var hash = hashingService.encode(signUpDto.getMasterPasswordHash(), randomService.nextBytes(saltSize));
 
-        var user = authenticationMapper.newUser(signUpDto, salt, hash, getCurrentTimestamp(), UserStateEnum.UNVERIFIED);
+        var user = authenticationMapper.newUser(signUpDto, hash, randomService.nextUUID(), getCurrentTimestamp(), UserStateEnum.UNVERIFIED);
 
         var dynamicLabels = Collections.singletonMap("href", endpointFe + "/" + user.getEmail() + "/" + user.getVerificationCode() + "/confirm");
 
@@ -103,15 +96,16 @@ public class AuthenticationService {
 
         checkPassword(user, logInDto.getMasterPasswordHash());
 
+        if (hashingService.needsRehash(user.getHash())) {
+            log.info("Rehash password for user {} with the current parameters", logInDto.getEmail());
+            user.setHash(hashingService.encode(logInDto.getMasterPasswordHash(), randomService.nextBytes(saltSize)));
+        }
+
         user.setTimestampLastAccess(getCurrentTimestamp());
         userRepository.persist(user);
 
-        var claims = new HashMap<String, Object>();
-        claims.put(TokenClaimEnum.ID.getLabel(), user.getId());
-        claims.put(TokenClaimEnum.EMAIL.getLabel(), user.getEmail());
-        claims.put(TokenClaimEnum.ROLE.getLabel(), user.getState().name());
-
-        var token = tokenJwtService.generateTokenJwt(claims);
+        var token = generateToken(user);
+        var refreshToken = refreshTokenService.issue(user.getId());
 
         var dynamicLabels = Map.ofEntries(
                 entry("date_value", logInDto.getLocalDateTime()),
@@ -121,7 +115,22 @@ public class AuthenticationService {
 
         emailService.sendEmail(user.getEmail(), user.getLanguage(), EmailTypeEnum.LOG_IN, dynamicLabels);
         log.info("End logIn for user {}", logInDto.getEmail());
-        return authenticationMapper.newAccessDto(user, token, tokenJwtService.getPublicKey());
+        return authenticationMapper.newAccessDto(user, token, tokenJwtService.getPublicKey(), refreshToken);
+    }
+
+    @Transactional(dontRollbackOn = NotAuthorizedException.class)
+    public AccessDto refresh(RefreshDto refreshDto) {
+        log.info("Init refresh");
+        var rotated = refreshTokenService.rotate(refreshDto.getRefreshToken());
+        var user = userRepository.findByIdOptional(rotated.userId())
+                .filter(u -> UserStateEnum.VERIFIED.equals(u.getState()))
+                .orElseThrow(() -> {
+                    log.warn("User {} not found", rotated.userId());
+                    return new NotAuthorizedException("");
+                });
+
+        log.info("End refresh for user {}", user.getEmail());
+        return authenticationMapper.newAccessDto(user, generateToken(user), tokenJwtService.getPublicKey(), rotated.refreshToken());
     }
 
     public boolean checkEmail(String email) {
@@ -146,29 +155,28 @@ public class AuthenticationService {
     }
 
     @Transactional
-    public boolean changePassword(ChangePasswordDto changePasswordDto, String email) {
-        log.info("Init changePassword for user {}", email);
-        var user = userRepository.findByEmailAndState(email, UserStateEnum.VERIFIED)
+    public boolean changePassword(ChangePasswordDto changePasswordDto, Long id) {
+        log.info("Init changePassword for user id {}", id);
+        var user = userRepository.findByIdAndState(id, UserStateEnum.VERIFIED)
                 .orElseThrow(() -> {
-                    log.warn("User {} not found", email);
+                    log.warn("User id {} not found", id);
                     return new NotFoundException();
                 });
 
         checkPassword(user, changePasswordDto.getCurrentMasterPasswordHash());
 
-        var salt = AuthenticationUtils.generateSalt(saltSize);
-        var hash = AuthenticationUtils.generateArgon2id(changePasswordDto.getNewMasterPasswordHash(), salt, argon2idSize,
-                argon2idIterations, argon2idMemoryKB, argon2idParallelism);
+        var hash = hashingService.encode(changePasswordDto.getNewMasterPasswordHash(), randomService.nextBytes(saltSize));
 
         user.setTimestampPassword(getCurrentTimestamp());
-        user.setSalt(authenticationMapper.base64Encoding(salt));
-        user.setHash(authenticationMapper.base64Encoding(hash));
+        user.setHash(hash);
+        credentialCacheService.invalidate(user.getId());
+        revokeTokens(user);
         user.setInitializationVector(authenticationMapper.base64EncodingString(changePasswordDto.getNewInitializationVector()));
         user.setProtectedSymmetricKey(authenticationMapper.base64EncodingString(changePasswordDto.getNewProtectedSymmetricKey()));
 
         emailService.sendEmail(user.getEmail(), user.getLanguage(), EmailTypeEnum.CHANGE_PSW, new HashMap<>());
         userRepository.persist(user);
-        log.info("End changePassword for user {}", email);
+        log.info("End changePassword for user id {}", id);
         return true;
     }
 
@@ -187,64 +195,67 @@ public class AuthenticationService {
     }
 
     @Transactional
-    public boolean deleteAccount(String email, DeleteDto deleteDto) {
-        log.info("Init deleteAccount for user {}", email);
-        var user = userRepository.findByEmailAndState(email, UserStateEnum.VERIFIED)
+    public boolean deleteAccount(Long id, DeleteDto deleteDto) {
+        log.info("Init deleteAccount for user id {}", id);
+        var user = userRepository.findByIdAndState(id, UserStateEnum.VERIFIED)
                 .orElseThrow(() -> {
-                    log.warn("User {} not found", email);
+                    log.warn("User id {} not found", id);
                     return new NotFoundException();
                 });
 
         checkPassword(user, deleteDto.getMasterPasswordHash());
 
+        revokeTokens(user);
         userRepository.delete(user);
+        credentialCacheService.invalidate(user.getId());
         emailService.sendEmail(user.getEmail(), user.getLanguage(), EmailTypeEnum.DELETE_USER, new HashMap<>());
-        log.info("End deleteAccount for user {}", email);
+        log.info("End deleteAccount for user id {}", id);
         return true;
     }
 
     @Transactional
-    public boolean changeEmail(ChangeEmailDto changeEmailDto, String oldEmail) {
-        log.info("Init changeEmail for user {} to {}", oldEmail, changeEmailDto.getEmail());
-        if (oldEmail.equals(changeEmailDto.getEmail()) || userRepository.existsByEmail(changeEmailDto.getEmail())) {
+    public boolean changeEmail(ChangeEmailDto changeEmailDto, Long id) {
+        log.info("Init changeEmail for user id {} to {}", id, changeEmailDto.getEmail());
+        // The current email is registered too
+        if (userRepository.existsByEmail(changeEmailDto.getEmail())) {
             log.warn("Email {} already registered", changeEmailDto.getEmail());
             throw new BadRequestException();
         }
 
-        var user = userRepository.findByEmailAndState(oldEmail, UserStateEnum.VERIFIED)
+        var user = userRepository.findByIdAndState(id, UserStateEnum.VERIFIED)
                 .orElseThrow(() -> {
-                    log.warn("User {} not found", oldEmail);
+                    log.warn("User id {} not found", id);
                     return new NotFoundException();
                 });
 
         checkPassword(user, changeEmailDto.getMasterPasswordHash());
 
         user.setTimestampEmail(getCurrentTimestamp());
-        user.setVerificationCode(generateVerificationCode());
+        user.setVerificationCode(randomService.nextDigits(VERIFICATION_CODE_LENGTH));
         user.setNewEmail(changeEmailDto.getEmail());
         user.setAttempt(0);
 
         var dynamicLabels = Map.ofEntries(entry("email", changeEmailDto.getEmail()));
-        emailService.sendEmail(oldEmail, user.getLanguage(), EmailTypeEnum.CHANGE_EMAIL_NOTIFICATION, dynamicLabels);
+        emailService.sendEmail(user.getEmail(), user.getLanguage(), EmailTypeEnum.CHANGE_EMAIL_NOTIFICATION, dynamicLabels);
 
         dynamicLabels = Map.ofEntries(entry("code", user.getVerificationCode()));
         emailService.sendEmail(changeEmailDto.getEmail(), user.getLanguage(), EmailTypeEnum.CHANGE_EMAIL_CODE, dynamicLabels);
         userRepository.persist(user);
-        log.info("End changeEmail for user {} to {}", oldEmail, changeEmailDto.getEmail());
+        log.info("End changeEmail for user id {} to {}", id, changeEmailDto.getEmail());
         return true;
     }
 
     @Transactional(dontRollbackOn = BadRequestException.class)
-    public boolean confirmChangeEmail(ConfirmChangeEmailDto confirmChangeEmailDto, String oldEmail) {
-        log.info("Init confirmChangeEmail for user {} to {}", oldEmail, confirmChangeEmailDto.getEmail());
+    public boolean confirmChangeEmail(ConfirmChangeEmailDto confirmChangeEmailDto, Long id) {
+        log.info("Init confirmChangeEmail for user id {} to {}", id, confirmChangeEmailDto.getEmail());
         if (userRepository.existsByEmail(confirmChangeEmailDto.getEmail())) {
             log.warn("Email {} already registered", confirmChangeEmailDto.getEmail());
             throw new BadRequestException();
         }
 
-        var user = userRepository.findByEmailAndNewEmailAndState(oldEmail, confirmChangeEmailDto.getEmail(), UserStateEnum.VERIFIED)
+        var user = userRepository.findByIdAndNewEmailAndState(id, confirmChangeEmailDto.getEmail(), UserStateEnum.VERIFIED)
                 .orElseThrow(() -> {
-                    log.warn("User {} not found", oldEmail);
+                    log.warn("User id {} not found", id);
                     return new NotFoundException();
                 });
 
@@ -255,24 +266,23 @@ public class AuthenticationService {
         var maximumTime = user.getTimestampEmail().toLocalDateTime().plusMinutes(emailChangeExpirationMn);
 
         if (currentTime.isAfter(maximumTime)) { // Time out
-            errorMessage = String.format("The maximum time limit has been exceeded for user %s to %s",
-                    oldEmail, confirmChangeEmailDto.getEmail());
+            errorMessage = String.format("The maximum time limit has been exceeded for user id %s to %s",
+                    id, confirmChangeEmailDto.getEmail());
         } else if (user.getAttempt() >= emailChangeAttempts) { // The attempt limit has been reached
-            errorMessage = String.format("The attempt limit has been reached for user %s to %s",
-                    oldEmail, confirmChangeEmailDto.getEmail());
+            errorMessage = String.format("The attempt limit has been reached for user id %s to %s",
+                    id, confirmChangeEmailDto.getEmail());
         } else if (!confirmChangeEmailDto.getVerificationCode().equals(user.getVerificationCode())) { //Incorrect verification code
             user.setAttempt(user.getAttempt() + 1);
             userRepository.persist(user);
-            log.warn("Incorrect verification code for user {} to {}", oldEmail, confirmChangeEmailDto.getEmail());
+            log.warn("Incorrect verification code for user id {} to {}", id, confirmChangeEmailDto.getEmail());
             throw new BadRequestException();
         } else { // Ok
-            var salt = AuthenticationUtils.generateSalt(saltSize);
-            var hash = AuthenticationUtils.generateArgon2id(confirmChangeEmailDto.getNewMasterPasswordHash(), salt,
-                    argon2idSize, argon2idIterations, argon2idMemoryKB, argon2idParallelism);
+            var hash = hashingService.encode(confirmChangeEmailDto.getNewMasterPasswordHash(), randomService.nextBytes(saltSize));
 
             user.setEmail(user.getNewEmail());
-            user.setSalt(authenticationMapper.base64Encoding(salt));
-            user.setHash(authenticationMapper.base64Encoding(hash));
+            user.setHash(hash);
+            credentialCacheService.invalidate(user.getId());
+            revokeTokens(user);
             user.setInitializationVector(authenticationMapper.base64EncodingString(confirmChangeEmailDto.getNewInitializationVector()));
             user.setProtectedSymmetricKey(authenticationMapper.base64EncodingString(confirmChangeEmailDto.getNewProtectedSymmetricKey()));
             emailService.sendEmail(user.getEmail(), user.getLanguage(), EmailTypeEnum.CHANGE_EMAIL, new HashMap<>());
@@ -288,7 +298,7 @@ public class AuthenticationService {
             throw new BadRequestException();
         }
 
-        log.info("End confirmChangeEmail for user {} to {}", oldEmail, confirmChangeEmailDto.getEmail());
+        log.info("End confirmChangeEmail for user id {} to {}", id, confirmChangeEmailDto.getEmail());
         return true;
     }
 
@@ -296,23 +306,21 @@ public class AuthenticationService {
         return Timestamp.from(Instant.now());
     }
 
-    private void checkPassword(User user, String masterPasswordHash) {
-        var storedHash = Base64.getDecoder().decode(user.getHash());
-        var salt = Base64.getDecoder().decode(user.getSalt());
-        var currentHash = AuthenticationUtils.generateArgon2id(masterPasswordHash, salt,
-                argon2idSize, argon2idIterations, argon2idMemoryKB, argon2idParallelism);
+    private String generateToken(User user) {
+        return tokenJwtService.generateTokenJwt(user.getId(), user.getEmail(), user.getState().name(),
+                tokenRevocationService.getEpoch(user.getId()));
+    }
+
+    private void revokeTokens(User user) {
+        refreshTokenService.revokeAll(user.getId());
+        tokenRevocationService.revoke(user.getId());
+    }
 
-        if (!Arrays.equals(storedHash, currentHash)) {
+    private void checkPassword(User user, String masterPasswordHash) {
+        if (!credentialCacheService.verify(user, masterPasswordHash)) {
             log.warn("Invalid credentials for user {}", user.getEmail());
             throw new NotAuthorizedException("");
         }
     }
 
-    private static String generateVerificationCode() {
-        var secureRandom = new SecureRandom();
-        return IntStream.range(0, 6)
-                .mapToObj(i -> String.valueOf(secureRandom.nextInt(10)))
-                .collect(Collectors.joining());
-    }
-
 }
@@ -0,0 +1,208 @@
+package com.ilmatty98.service;
+
+import com.ilmatty98.crypto.Argon2idParameters;
+import com.ilmatty98.dto.response.CalibrationDto;
+import com.ilmatty98.utils.AuthenticationUtils;
+import com.ilmatty98.utils.ContainerUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.ws.rs.ServiceUnavailableException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmarks the Argon2id engine in use on the running container and recommends the cost parameters
+ * that meet the target latency while the requested number of concurrent logins fits the memory budget.
+ * The hashes go through the admission control, so a calibration never exceeds the memory budget.
+ **/
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class CalibrationService {
+
+    private static final int KB_ALIGNMENT = 1024;
+
+    private static final int ROUNDS = 2;
+
+    private static final String PASSWORD = "calibration";
+
+    @ConfigProperty(name = "encryption.argon2id.size")
+    int argon2idSize;
+
+    @ConfigProperty(name = "encryption.argon2id.admission.reserved-memory-mb")
+    long reservedMemoryMB;
+
+    @ConfigProperty(name = "encryption.argon2id.calibration.at-startup")
+    boolean atStartup;
+
+    @ConfigProperty(name = "encryption.argon2id.calibration.target-latency-ms")
+    long targetLatencyMs;
+
+    @ConfigProperty(name = "encryption.argon2id.calibration.concurrency")
+    int concurrency;
+
+    @ConfigProperty(name = "encryption.argon2id.calibration.min-memory-kb")
+    int minMemoryKB;
+
+    @ConfigProperty(name = "encryption.argon2id.calibration.max-memory-kb")
+    int maxMemoryKB;
+
+    @ConfigProperty(name = "encryption.argon2id.calibration.max-iterations")
+    int maxIterations;
+
+    @ConfigProperty(name = "encryption.argon2id.calibration.samples")
+    int samples;
+
+    private final HashingService hashingService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicReference<CalibrationDto> lastCalibration = new AtomicReference<>();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @PostConstruct
+    void init() {
+        meterRegistry.gauge("argon2id.calibration.logins.per.second", lastCalibration,
+                c -> c.get() != null ? c.get().getLoginsPerSecond() : Double.NaN);
+        meterRegistry.gauge("argon2id.calibration.latency", lastCalibration,
+                c -> c.get() != null ? c.get().getLatencyMs() : Double.NaN);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (atStartup)
+            calibrate();
+    }
+
+    public Optional<CalibrationDto> getLastCalibration() {
+        return Optional.ofNullable(lastCalibration.get());
+    }
+
+    public CalibrationDto calibrate() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Argon2id calibration already running");
+            throw new ServiceUnavailableException(targetLatencyMs / 1000 + 1);
+        }
+
+        try {
+            var cores = Runtime.getRuntime().availableProcessors();
+            var usableMemory = ContainerUtils.getUsableMemory() - reservedMemoryMB * 1024 * 1024;
+            log.info("Init Argon2id calibration: {} cores, {} MB usable, target {} ms with {} concurrent logins",
+                    cores, usableMemory / (1024 * 1024), targetLatencyMs, concurrency);
+
+            // Concurrent hashes share the cores, more lanes than that only add overhead
+            var parallelism = Math.max(1, cores / concurrency);
+
+            // Largest memory that lets the concurrent hashes fit the budget
+            var memoryKB = align((int) Math.min(maxMemoryKB, usableMemory / concurrency / 1024));
+            if (memoryKB < minMemoryKB) {
+                log.warn("Memory budget allows only {} KB per hash, below the minimum of {} KB", memoryKB, minMemoryKB);
+                memoryKB = minMemoryKB;
+            }
+
+            // Memory first: halve it until a single pass meets the target
+            var latencyMs = measure(new Argon2idParameters(1, memoryKB, parallelism, argon2idSize));
+            while (latencyMs > targetLatencyMs && align(memoryKB / 2) >= minMemoryKB) {
+                memoryKB = align(memoryKB / 2);
+                latencyMs = measure(new Argon2idParameters(1, memoryKB, parallelism, argon2idSize));
+            }
+
+            // Then the passes that still fit the target
+            var iterations = (int) Math.clamp((long) (targetLatencyMs / latencyMs), 1, maxIterations);
+            var parameters = new Argon2idParameters(iterations, memoryKB, parallelism, argon2idSize);
+            if (iterations > 1)
+                latencyMs = measure(parameters);
+            while (latencyMs > targetLatencyMs && parameters.iterations() > 1) {
+                parameters = new Argon2idParameters(parameters.iterations() - 1, memoryKB, parallelism, argon2idSize);
+                latencyMs = measure(parameters);
+            }
+
+            var maxConcurrentHashes = (int) Math.max(1, usableMemory / (memoryKB * 1024L));
+
+            var calibration = new CalibrationDto();
+            calibration.setEngine(hashingService.getEngine().name());
+            calibration.setCores(cores);
+            calibration.setUsableMemory(usableMemory);
+            calibration.setConcurrency(concurrency);
+            calibration.setTargetLatencyMs(targetLatencyMs);
+            calibration.setIterations(parameters.iterations());
+            calibration.setMemoryKB(parameters.memoryKB());
+            calibration.setParallelism(parameters.parallelism());
+            calibration.setLatencyMs(latencyMs);
+            calibration.setMaxConcurrentHashes(maxConcurrentHashes);
+            calibration.setLoginsPerSecond(measureThroughput(parameters, Math.min(concurrency, maxConcurrentHashes)));
+            calibration.setTimestamp(Timestamp.from(Instant.now()));
+            lastCalibration.set(calibration);
+
+            log.info("End Argon2id calibration: iterations={} memoryKB={} parallelism={} latency={} ms, {} logins/s",
+                    calibration.getIterations(), calibration.getMemoryKB(), calibration.getParallelism(),
+                    Math.round(latencyMs), String.format("%.2f", calibration.getLoginsPerSecond()));
+            return calibration;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Median latency in ms of a single hash, after a warm-up run
+     **/
+    private double measure(Argon2idParameters parameters) {
+        var salt = AuthenticationUtils.generateSalt(16);
+
+        hashingService.generateArgon2id(PASSWORD, salt, parameters);
+        var latencies = new double[samples];
+        for (var i = 0; i < samples; i++) {
+            var start = System.nanoTime();
+            hashingService.generateArgon2id(PASSWORD, salt, parameters);
+            latencies[i] = (System.nanoTime() - start) / 1_000_000d;
+        }
+
+        Arrays.sort(latencies);
+        log.debug("Argon2id {} measured in {} ms", parameters, latencies[samples / 2]);
+        return latencies[samples / 2];
+    }
+
+    /**
+     * Hashes per second with the given number of logins hashing at the same time
+     **/
+    private double measureThroughput(Argon2idParameters parameters, int threads) {
+        var salt = AuthenticationUtils.generateSalt(16);
+        var hashes = threads * ROUNDS;
+
+        // Callers only wait, the hashes run on the hashing executor behind the admission control
+        try (var executor = Executors.newFixedThreadPool(threads, Thread.ofVirtual().name("argon2id-calibration-", 0).factory())) {
+            var start = System.nanoTime();
+            var futures = IntStream.range(0, hashes)
+                    .mapToObj(i -> executor.submit(() -> hashingService.generateArgon2id(PASSWORD, salt, parameters)))
+                    .toList();
+            for (Future<byte[]> future : futures) {
+                future.get();
+            }
+            return hashes / ((System.nanoTime() - start) / 1_000_000_000d);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(targetLatencyMs / 1000 + 1);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error calibrating argon2id", e.getCause());
+        }
+    }
+
+    private static int align(int memoryKB) {
+        return memoryKB / KB_ALIGNMENT * KB_ALIGNMENT;
+    }
+}
@@ -0,0 +1,107 @@
+package com.ilmatty98.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ilmatty98.entity.User;
+import com.ilmatty98.utils.AuthenticationUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived cache of successful password verifications, so that the re-authentication of a sensitive action
+ * shortly after the login does not pay the Argon2id cost again. An entry is bound to the stored hash and to
+ * timestampPassword, so it stops matching as soon as the password changes.
+ **/
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class CredentialCacheService {
+
+    private static final String CACHE_NAME = "credential-cache";
+
+    @ConfigProperty(name = "encryption.credential-cache.enabled")
+    boolean enabled;
+
+    @ConfigProperty(name = "encryption.credential-cache.ttl-seconds")
+    long ttlSeconds;
+
+    @ConfigProperty(name = "encryption.credential-cache.max-size")
+    long maxSize;
+
+    private final HashingService hashingService;
+
+    private final MeterRegistry meterRegistry;
+
+    private Cache<CacheKey, Timestamp> verifications;
+
+    private SecretKeySpec cacheKey;
+
+    private Counter hits;
+
+    private Counter misses;
+
+    private Timer verifyTimer;
+
+    private Counter cpuSaved;
+
+    @PostConstruct
+    void init() {
+        verifications = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+        cacheKey = AuthenticationUtils.generateHmacKey();
+
+        meterRegistry.gauge(CACHE_NAME + ".size", verifications, Cache::estimatedSize);
+        hits = meterRegistry.counter(CACHE_NAME + ".requests", "result", "hit");
+        misses = meterRegistry.counter(CACHE_NAME + ".requests", "result", "miss");
+        verifyTimer = meterRegistry.timer(CACHE_NAME + ".verify");
+        cpuSaved = Counter.builder(CACHE_NAME + ".cpu.saved")
+                .baseUnit("seconds")
+                .description("Estimated Argon2id time saved by cache hits")
+                .register(meterRegistry);
+    }
+
+    public boolean verify(User user, String password) {
+        if (!enabled)
+            return hashingService.verify(password, user.getHash());
+
+        var key = new CacheKey(user.getId(), AuthenticationUtils.generateHmac(cacheKey, user.getHash(), password));
+        var timestampPassword = verifications.getIfPresent(key);
+        if (timestampPassword != null && timestampPassword.equals(user.getTimestampPassword())) {
+            hits.increment();
+            cpuSaved.increment(verifyTimer.mean(TimeUnit.SECONDS));
+            return true;
+        }
+
+        misses.increment();
+        var start = System.nanoTime();
+        var verified = hashingService.verify(password, user.getHash());
+        verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (verified)
+            verifications.put(key, user.getTimestampPassword());
+        return verified;
+    }
+
+    /**
+     * Drops every verification of the user, e.g. when the password or the account changes
+     **/
+    public void invalidate(Long userId) {
+        verifications.asMap().keySet().removeIf(k -> k.userId().equals(userId));
+    }
+
+    private record CacheKey(Long userId, String digest) {
+    }
+}
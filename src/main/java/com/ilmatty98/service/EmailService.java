@@ -9,6 +9,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
@@ -33,24 +34,29 @@ public class EmailService {
     public void sendEmail(String email, String language, EmailTypeEnum emailTypeEnum, Map<String, String> dynamicLabels) {
         try {
             log.warn("Init sending email to {}", email);
-
-            var labelsInputStream = getResourceAsStreamOrThrow(emailTypeEnum.getLabelLocation());
-            var labels = objectMapper.readValue(labelsInputStream, EmailTemplateDto.class);
-            dynamicLabels.forEach((k, v) -> labels.getTemplate().put(k, Collections.singletonMap(DEFAULT_LANGUAGE, v)));
-
-            var templateInputStream = getResourceAsStreamOrThrow(emailTypeEnum.getTemplateLocation());
-            var template = new String(templateInputStream.readAllBytes(), StandardCharsets.UTF_8);
-
-            var subject = getValue(labels.getSubject(), language);
-            var body = fillTemplate(labels.getTemplate(), template, language);
-
-            mailer.send(Mail.withHtml(email, subject, body));
+            mailer.send(renderEmail(email, language, emailTypeEnum, dynamicLabels));
             log.warn("Email sent successfully to {}", email);
         } catch (Exception e) {
             log.warn("Error sending email to {}", email, e);
         }
     }
 
+    /**
+     * Builds the email from its labels and template, without sending it
+     **/
+    public Mail renderEmail(String email, String language, EmailTypeEnum emailTypeEnum, Map<String, String> dynamicLabels) throws IOException {
+        var labelsInputStream = getResourceAsStreamOrThrow(emailTypeEnum.getLabelLocation());
+        var labels = objectMapper.readValue(labelsInputStream, EmailTemplateDto.class);
+        dynamicLabels.forEach((k, v) -> labels.getTemplate().put(k, Collections.singletonMap(DEFAULT_LANGUAGE, v)));
+
+        var templateInputStream = getResourceAsStreamOrThrow(emailTypeEnum.getTemplateLocation());
+        var template = new String(templateInputStream.readAllBytes(), StandardCharsets.UTF_8);
+
+        var subject = getValue(labels.getSubject(), language);
+        var body = fillTemplate(labels.getTemplate(), template, language);
+        return Mail.withHtml(email, subject, body);
+    }
+
     private static String getValue(Map<String, String> map, String language) {
         try {
             return map.getOrDefault(language, map.getOrDefault(DEFAULT_LANGUAGE, ""));
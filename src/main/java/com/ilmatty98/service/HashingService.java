@@ -0,0 +1,277 @@
+package com.ilmatty98.service;
+
+import com.ilmatty98.constants.HashingEngineEnum;
+import com.ilmatty98.crypto.*;
+import com.ilmatty98.utils.AuthenticationUtils;
+import com.ilmatty98.utils.ContainerUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.ServiceUnavailableException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class HashingService {
+
+    @ConfigProperty(name = "encryption.argon2id.size")
+    int argon2idSize;
+
+    @ConfigProperty(name = "encryption.argon2id.iterations")
+    int argon2idIterations;
+
+    @ConfigProperty(name = "encryption.argon2id.memoryKB")
+    int argon2idMemoryKB;
+
+    @ConfigProperty(name = "encryption.argon2id.parallelism")
+    int argon2idParallelism;
+
+    /**
+     * Engine in use, the configured one unless it is not available
+     **/
+    @Getter
+    @ConfigProperty(name = "encryption.argon2id.engine")
+    HashingEngineEnum engine;
+
+    @ConfigProperty(name = "encryption.argon2id.native.library")
+    String nativeLibrary;
+
+    @ConfigProperty(name = "encryption.argon2id.executor.threads")
+    Optional<Integer> executorThreads;
+
+    @ConfigProperty(name = "encryption.argon2id.admission.reserved-memory-mb")
+    long reservedMemoryMB;
+
+    @ConfigProperty(name = "encryption.argon2id.admission.queue-size")
+    int queueSize;
+
+    @ConfigProperty(name = "encryption.argon2id.admission.timeout-ms")
+    long timeoutMs;
+
+    @ConfigProperty(name = "encryption.argon2id.admission.retry-after-seconds")
+    long retryAfterSeconds;
+
+    private final MeterRegistry meterRegistry;
+
+    @Getter
+    private int maxConcurrentHashes;
+
+    private Semaphore slots;
+
+    /**
+     * Argon2id is CPU bound: it runs on platform threads sized to the cores, never on the request threads
+     **/
+    private ExecutorService executor;
+
+    private Argon2idParameters parameters;
+
+    private ForkJoinPool lanesPool;
+
+    private PasswordHasher passwordHasher;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private Timer waitTimer;
+
+    private Counter rejectedQueueFull;
+
+    private Counter rejectedTimeout;
+
+    private final Map<String, CompletableFuture<Boolean>> verifications = new ConcurrentHashMap<>();
+
+    private SecretKeySpec singleFlightKey;
+
+    private Counter coalesced;
+
+    @PostConstruct
+    void init() {
+        var usableMemory = ContainerUtils.getUsableMemory() - reservedMemoryMB * 1024 * 1024;
+        var hashMemory = argon2idMemoryKB * 1024L;
+        maxConcurrentHashes = (int) Math.max(1, usableMemory / hashMemory);
+        slots = new Semaphore(maxConcurrentHashes, true);
+
+        var threads = Math.min(maxConcurrentHashes, executorThreads.orElse(Runtime.getRuntime().availableProcessors()));
+        executor = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("argon2id-", 0).daemon().factory());
+
+        parameters = new Argon2idParameters(argon2idIterations, argon2idMemoryKB, argon2idParallelism, argon2idSize);
+        singleFlightKey = AuthenticationUtils.generateHmacKey();
+        passwordHasher = createPasswordHasher(threads);
+
+        meterRegistry.gauge("argon2id.admission.slots", slots, Semaphore::availablePermits);
+        meterRegistry.gauge("argon2id.admission.queue.depth", waiting);
+        waitTimer = meterRegistry.timer("argon2id.admission.wait");
+        rejectedQueueFull = meterRegistry.counter("argon2id.admission.rejected", "reason", "queue_full");
+        rejectedTimeout = meterRegistry.counter("argon2id.admission.rejected", "reason", "timeout");
+        coalesced = meterRegistry.counter("argon2id.single-flight.coalesced");
+
+        log.info("Argon2id admission control: {} concurrent hashes of {} KB on {} threads with {} engine, queue size {}",
+                maxConcurrentHashes, argon2idMemoryKB, threads, engine, queueSize);
+    }
+
+    @PreDestroy
+    void destroy() {
+        executor.shutdownNow();
+        if (lanesPool != null)
+            lanesPool.shutdownNow();
+    }
+
+    public byte[] generateArgon2id(String password, byte[] salt) {
+        return generateArgon2id(password, salt, parameters);
+    }
+
+    /**
+     * Hashes the password with the current parameters, in PHC string format
+     **/
+    public String encode(String password, byte[] salt) {
+        return new Argon2idHash(parameters, salt, generateArgon2id(password, salt, parameters)).encode();
+    }
+
+    /**
+     * Verifies the password with the parameters stored in the encoded hash, not with the current ones.
+     * Identical verifications running at the same time (e.g. client retries) share a single computation.
+     **/
+    public boolean verify(String password, String encoded) {
+        // Keyed digest, the secret itself never becomes a map key
+        var key = AuthenticationUtils.generateHmac(singleFlightKey, encoded, password);
+        var flight = new CompletableFuture<Boolean>();
+        var inFlight = verifications.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            coalesced.increment();
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+
+        try {
+            var stored = Argon2idHash.decode(encoded);
+            var result = MessageDigest.isEqual(stored.hash(), generateArgon2id(password, stored.salt(), stored.parameters()));
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            verifications.remove(key, flight);
+        }
+    }
+
+    public boolean needsRehash(String encoded) {
+        return !parameters.equals(Argon2idHash.decode(encoded).parameters());
+    }
+
+    byte[] generateArgon2id(String password, byte[] salt, Argon2idParameters hashParameters) {
+        // A hash stored with more memory than the current policy takes more than one slot
+        var permits = (int) Math.min(maxConcurrentHashes, Math.max(1, Math.ceilDiv(hashParameters.memoryKB(), argon2idMemoryKB)));
+        acquire(permits);
+
+        // The permits go with the hash, not with the caller: whoever claims it first releases them
+        var claimed = new AtomicBoolean();
+        Future<byte[]> future;
+        try {
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true))
+                    return null;
+                try {
+                    return passwordHasher.hash(password.getBytes(StandardCharsets.UTF_8), salt, hashParameters);
+                } finally {
+                    slots.release(permits);
+                }
+            });
+        } catch (RuntimeException e) {
+            slots.release(permits);
+            throw e;
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            // A queued hash is dropped, a running one cannot be stopped and keeps its memory until it ends
+            if (claimed.compareAndSet(false, true)) {
+                future.cancel(false);
+                slots.release(permits);
+            }
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(retryAfterSeconds);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error generating argon2id", e.getCause());
+        }
+    }
+
+    private PasswordHasher createPasswordHasher(int threads) {
+        return switch (engine) {
+            case BOUNCYCASTLE -> new BouncyCastlePasswordHasher();
+            case JAVA -> createJavaPasswordHasher(threads);
+            case NATIVE -> NativePasswordHasher.load(nativeLibrary)
+                    .orElseGet(() -> {
+                        log.warn("Native Argon2id engine not available, falling back to the Java engine");
+                        engine = HashingEngineEnum.JAVA;
+                        return createJavaPasswordHasher(threads);
+                    });
+        };
+    }
+
+    private PasswordHasher createJavaPasswordHasher(int threads) {
+        // One matrix per hashing thread, allocated once
+        var memoryPool = new Argon2MemoryPool(threads, Argon2idGenerator.getMemoryBlocks(argon2idMemoryKB, argon2idParallelism));
+        meterRegistry.gauge("argon2id.pool.available", memoryPool, Argon2MemoryPool::available);
+        meterRegistry.more().counter("argon2id.pool.allocations", List.of(), memoryPool, Argon2MemoryPool::allocations);
+
+        lanesPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        return new PooledPasswordHasher(memoryPool, lanesPool);
+    }
+
+    private void acquire(int permits) {
+        if (slots.tryAcquire(permits))
+            return;
+
+        if (waiting.incrementAndGet() > queueSize) {
+            waiting.decrementAndGet();
+            rejectedQueueFull.increment();
+            log.warn("Argon2id queue is full, request rejected");
+            throw new ServiceUnavailableException(retryAfterSeconds);
+        }
+
+        var start = System.nanoTime();
+        try {
+            if (!slots.tryAcquire(permits, timeoutMs, TimeUnit.MILLISECONDS)) {
+                rejectedTimeout.increment();
+                log.warn("Argon2id slot not available within {} ms, request rejected", timeoutMs);
+                throw new ServiceUnavailableException(retryAfterSeconds);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(retryAfterSeconds);
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ilmatty98.service;
+
+import com.ilmatty98.entity.Lease;
+import com.ilmatty98.repository.LeaseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Elects the replica running the singleton jobs through a lease row: the leader renews it on every heartbeat,
+ * the others take it over once it has expired, so a dead leader is replaced within one lease duration.
+ * The fencing token only guards the lease row itself: a paused former leader may still run a job once,
+ * so the singleton jobs stay idempotent (key rotation checks the latest key, cleanup deletes expired rows)
+ **/
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class LeaderElectionService {
+
+    @ConfigProperty(name = "leader-election.lease-name")
+    String leaseName;
+
+    @ConfigProperty(name = "leader-election.lease-duration")
+    Duration leaseDuration;
+
+    private final LeaseRepository leaseRepository;
+
+    private final RandomService randomService;
+
+    private final MeterRegistry meterRegistry;
+
+    @Getter
+    private String instanceId;
+
+    private volatile Leadership leadership;
+
+    private volatile Lease lastSeen;
+
+    @PostConstruct
+    void init() {
+        instanceId = Optional.ofNullable(System.getenv("HOSTNAME")).orElse("instance") + "-" + randomService.nextUUID();
+
+        var tags = Tags.of("lease", leaseName);
+        meterRegistry.gauge("leader-election.leader", tags, this, s -> s.isLeader() ? 1 : 0);
+        meterRegistry.gauge("leader-election.lease.age", tags, this, LeaderElectionService::getLeaseAgeSeconds);
+        meterRegistry.gauge("leader-election.fencing-token", tags, this,
+                s -> Optional.ofNullable(s.lastSeen).map(Lease::getFencingToken).orElse(0L));
+    }
+
+    /**
+     * True until the local deadline of the last renewal, which expires before the lease row does
+     **/
+    public boolean isLeader() {
+        var current = leadership;
+        return current != null && System.nanoTime() < current.validUntilNanos();
+    }
+
+    @Scheduled(identity = "leader-election-heartbeat", every = "{leader-election.heartbeat-interval}")
+    void heartbeat() {
+        try {
+            var start = System.nanoTime();
+
+            var current = leadership;
+            var held = current != null && leaseRepository.renew(leaseName, instanceId, current.fencingToken(), leaseDuration)
+                    || leaseRepository.takeOverExpired(leaseName, instanceId, leaseDuration)
+                    // The insert fails on every follower, it is only tried while the lease does not exist
+                    || leaseRepository.findByName(leaseName).isEmpty() && leaseRepository.create(newLease())
+                    && leaseRepository.takeOverExpired(leaseName, instanceId, leaseDuration);
+
+            var lease = leaseRepository.findByName(leaseName);
+            lastSeen = lease.orElse(null);
+            if (held && lease.isPresent() && instanceId.equals(lease.get().getOwner())) {
+                if (current == null || current.fencingToken() != lease.get().getFencingToken())
+                    log.info("Instance {} is now the leader of {} with fencing token {}", instanceId, leaseName, lease.get().getFencingToken());
+                leadership = new Leadership(lease.get().getFencingToken(), start + leaseDuration.toNanos());
+            } else if (current != null) {
+                log.warn("Instance {} is no longer the leader of {}", instanceId, leaseName);
+                leadership = null;
+            }
+        } catch (Exception e) {
+            // The leadership lapses on its own at the local deadline
+            log.error("Error renewing lease {}", leaseName, e);
+        }
+    }
+
+    /**
+     * Hands the lease over right away instead of letting it expire
+     **/
+    void onStop(@Observes ShutdownEvent event) {
+        var current = leadership;
+        leadership = null;
+        if (current != null)
+            leaseRepository.release(leaseName, instanceId, current.fencingToken());
+    }
+
+    /**
+     * Age at the last heartbeat, both timestamps come from the database clock
+     **/
+    private double getLeaseAgeSeconds() {
+        var lease = lastSeen;
+        return lease == null ? Double.NaN
+                : Duration.between(lease.getTimestampAcquired().toInstant(), lease.getTimestampHeartbeat().toInstant()).toSeconds();
+    }
+
+    /**
+     * Already expired, the creator takes it over right after the insert
+     **/
+    private Lease newLease() {
+        var expired = new Timestamp(0);
+        var lease = new Lease();
+        lease.setName(leaseName);
+        lease.setOwner(instanceId);
+        lease.setFencingToken(0L);
+        lease.setTimestampAcquired(expired);
+        lease.setTimestampHeartbeat(expired);
+        lease.setTimestampExpiration(expired);
+        return lease;
+    }
+
+    private record Leadership(long fencingToken, long validUntilNanos) {
+    }
+}
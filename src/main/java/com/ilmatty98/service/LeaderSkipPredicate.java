@@ -0,0 +1,21 @@
+package com.ilmatty98.service;
+
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.ScheduledExecution;
+import jakarta.inject.Singleton;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs a scheduled job on the leader only: {@code @Scheduled(skipExecutionIf = LeaderSkipPredicate.class)}
+ **/
+@Singleton
+@RequiredArgsConstructor
+public class LeaderSkipPredicate implements Scheduled.SkipPredicate {
+
+    private final LeaderElectionService leaderElectionService;
+
+    @Override
+    public boolean test(ScheduledExecution execution) {
+        return !leaderElectionService.isLeader();
+    }
+}
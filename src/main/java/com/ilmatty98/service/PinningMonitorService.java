@@ -0,0 +1,76 @@
+package com.ilmatty98.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Listens to the JFR "jdk.VirtualThreadPinned" event, raised when a virtual thread blocks
+ * while holding a monitor (e.g. synchronized blocks in JDBC drivers or crypto providers)
+ **/
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class PinningMonitorService {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int STACK_DEPTH = 8;
+
+    @ConfigProperty(name = "virtual-threads.pinning-monitor.enabled")
+    boolean enabled;
+
+    @ConfigProperty(name = "virtual-threads.pinning-monitor.threshold-ms")
+    long thresholdMs;
+
+    private final MeterRegistry meterRegistry;
+
+    private RecordingStream recordingStream;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled)
+            return;
+
+        try {
+            var counter = meterRegistry.counter("virtual-threads.pinned");
+            var timer = meterRegistry.timer("virtual-threads.pinned.duration");
+
+            recordingStream = new RecordingStream();
+            recordingStream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+            recordingStream.onEvent(PINNED_EVENT, e -> {
+                counter.increment();
+                timer.record(e.getDuration());
+                log.warn("Virtual thread pinned for {} ms at {}", e.getDuration().toMillis(), getTopFrames(e));
+            });
+            recordingStream.startAsync();
+            log.info("Virtual thread pinning monitor started with threshold {} ms", thresholdMs);
+        } catch (Exception e) {
+            log.warn("Unable to start virtual thread pinning monitor", e);
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (recordingStream != null)
+            recordingStream.close();
+    }
+
+    private static String getTopFrames(RecordedEvent event) {
+        if (event.getStackTrace() == null)
+            return "unknown";
+
+        return event.getStackTrace().getFrames().stream()
+                .limit(STACK_DEPTH)
+                .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber())
+                .collect(Collectors.joining(" <- "));
+    }
+}
@@ -0,0 +1,181 @@
+package com.ilmatty98.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.ByteBuffer;
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Central source of randomness for salts and verification codes. Requests are spread over striped DRBG
+ * instances, seeded once at startup, and served from buffers that a background thread fills ahead of time,
+ * so a request neither creates a SecureRandom nor waits for entropy.
+ **/
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class RandomService {
+
+    private static final String DRBG = "DRBG";
+
+    private static final int DRBG_STRENGTH = 256;
+
+    /**
+     * Largest multiple of 10 in a byte, higher values are discarded to avoid modulo bias
+     **/
+    private static final int DIGIT_BOUND = 250;
+
+    @ConfigProperty(name = "random.stripes")
+    int stripesCount;
+
+    @ConfigProperty(name = "random.buffer-size")
+    int bufferSize;
+
+    private final MeterRegistry meterRegistry;
+
+    private Stripe[] stripes;
+
+    private ExecutorService refiller;
+
+    private Timer refillTimer;
+
+    private Counter syncRefills;
+
+    @PostConstruct
+    void init() {
+        refillTimer = meterRegistry.timer("random.refill");
+        syncRefills = meterRegistry.counter("random.refill.sync");
+        refiller = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("random-refill").daemon().factory());
+
+        stripes = new Stripe[stripesCount];
+        for (var i = 0; i < stripesCount; i++) {
+            stripes[i] = new Stripe(newDrbg());
+            stripes[i].refillAsync();
+        }
+        log.info("Random service started with {} DRBG stripes of {} bytes", stripesCount, bufferSize);
+    }
+
+    @PreDestroy
+    void destroy() {
+        refiller.shutdownNow();
+    }
+
+    public byte[] nextBytes(int size) {
+        var bytes = new byte[size];
+        getStripe().nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Random (version 4) UUID
+     **/
+    public String nextUUID() {
+        var bytes = nextBytes(16);
+        bytes[6] = (byte) ((bytes[6] & 0x0f) | 0x40);
+        bytes[8] = (byte) ((bytes[8] & 0x3f) | 0x80);
+        var buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong()).toString();
+    }
+
+    public String nextDigits(int length) {
+        var code = new StringBuilder(length);
+        while (code.length() < length) {
+            for (var b : nextBytes(length)) {
+                var value = b & 0xff;
+                if (value < DIGIT_BOUND && code.length() < length)
+                    code.append(value % 10);
+            }
+        }
+        return code.toString();
+    }
+
+    private Stripe getStripe() {
+        return stripes[(int) (Thread.currentThread().threadId() % stripes.length)];
+    }
+
+    private static SecureRandom newDrbg() {
+        try {
+            return SecureRandom.getInstance(DRBG, DrbgParameters.instantiation(DRBG_STRENGTH,
+                    DrbgParameters.Capability.RESEED_ONLY, null));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("DRBG not available", e);
+        }
+    }
+
+    private class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final SecureRandom drbg;
+
+        private byte[] buffer = new byte[0];
+
+        private int position;
+
+        private volatile byte[] next;
+
+        private Stripe(SecureRandom drbg) {
+            this.drbg = drbg;
+        }
+
+        private void nextBytes(byte[] bytes) {
+            if (bytes.length > bufferSize) {
+                drbg.nextBytes(bytes);
+                return;
+            }
+
+            lock.lock();
+            try {
+                if (buffer.length - position < bytes.length) {
+                    var prefetched = next;
+                    next = null;
+                    if (prefetched != null) {
+                        buffer = prefetched;
+                    } else {
+                        // The background refill is late, fill on the caller thread
+                        syncRefills.increment();
+                        buffer = new byte[bufferSize];
+                        drbg.nextBytes(buffer);
+                    }
+                    position = 0;
+                    refillAsync();
+                }
+                System.arraycopy(buffer, position, bytes, 0, bytes.length);
+                // Bytes are handed out once
+                Arrays.fill(buffer, position, position + bytes.length, (byte) 0);
+                position += bytes.length;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void refillAsync() {
+            if (refiller.isShutdown())
+                return;
+            refiller.execute(() -> {
+                if (next != null)
+                    return;
+                var start = System.nanoTime();
+                var bytes = new byte[bufferSize];
+                drbg.nextBytes(bytes);
+                next = bytes;
+                refillTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            });
+        }
+    }
+}
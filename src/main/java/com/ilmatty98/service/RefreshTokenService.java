@@ -0,0 +1,121 @@
+package com.ilmatty98.service;
+
+import com.ilmatty98.entity.RefreshToken;
+import com.ilmatty98.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.NotAuthorizedException;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Opaque refresh tokens: 256 random bits, so a SHA-256 lookup is enough to check them and only the digest is stored.
+ * Every use rotates the token, a token used twice revokes all the tokens of its logIn.
+ **/
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final int TOKEN_SIZE = 32;
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    @ConfigProperty(name = "token.refresh.expiration-days")
+    long expirationDays;
+
+    private final RandomService randomService;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final MeterRegistry meterRegistry;
+
+    private Counter reuseDetected;
+
+    @PostConstruct
+    void init() {
+        reuseDetected = meterRegistry.counter("refresh-token.reuse-detected");
+    }
+
+    /**
+     * Starts a new family of refresh tokens
+     **/
+    public String issue(Long userId) {
+        return issue(userId, randomService.nextUUID());
+    }
+
+    /**
+     * Exchanges the refresh token for the next one of its family
+     **/
+    public RotatedRefreshToken rotate(String token) {
+        var refreshToken = refreshTokenRepository.findByTokenHash(digest(token))
+                .orElseThrow(() -> {
+                    log.warn("Refresh token not found");
+                    return new NotAuthorizedException("");
+                });
+
+        var now = Timestamp.from(Instant.now());
+        if (!refreshTokenRepository.markUsed(refreshToken.getId(), now)) {
+            // Only the first use is legitimate, the token has leaked
+            reuseDetected.increment();
+            log.warn("Refresh token reused for user {}, its family is revoked", refreshToken.getUserId());
+            refreshTokenRepository.deleteByFamily(refreshToken.getFamily());
+            throw new NotAuthorizedException("");
+        }
+
+        if (refreshToken.getTimestampExpiration().before(now)) {
+            log.warn("Refresh token expired for user {}", refreshToken.getUserId());
+            throw new NotAuthorizedException("");
+        }
+
+        return new RotatedRefreshToken(refreshToken.getUserId(), issue(refreshToken.getUserId(), refreshToken.getFamily()));
+    }
+
+    public void revokeAll(Long userId) {
+        var revoked = refreshTokenRepository.deleteByUserId(userId);
+        log.info("Revoked {} refresh tokens for user {}", revoked, userId);
+    }
+
+    @Transactional
+    @Scheduled(identity = "refresh-token-cleanup", every = "{token.refresh.cleanup-interval}", skipExecutionIf = LeaderSkipPredicate.class)
+    void deleteExpired() {
+        var deleted = refreshTokenRepository.deleteExpired(Timestamp.from(Instant.now()));
+        log.info("Deleted {} expired refresh tokens", deleted);
+    }
+
+    private String issue(Long userId, String family) {
+        var token = Base64.getUrlEncoder().withoutPadding().encodeToString(randomService.nextBytes(TOKEN_SIZE));
+        var now = Instant.now();
+
+        var refreshToken = new RefreshToken();
+        refreshToken.setUserId(userId);
+        refreshToken.setFamily(family);
+        refreshToken.setTokenHash(digest(token));
+        refreshToken.setTimestampCreation(Timestamp.from(now));
+        refreshToken.setTimestampExpiration(Timestamp.from(now.plus(expirationDays, ChronoUnit.DAYS)));
+        refreshTokenRepository.persist(refreshToken);
+        return token;
+    }
+
+    @SneakyThrows
+    private static String digest(String token) {
+        var hash = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    public record RotatedRefreshToken(Long userId, String refreshToken) {
+    }
+}
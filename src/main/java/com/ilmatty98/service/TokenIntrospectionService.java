@@ -0,0 +1,86 @@
+package com.ilmatty98.service;
+
+import com.ilmatty98.constants.TokenClaimEnum;
+import com.ilmatty98.dto.response.TokenIntrospectionDto;
+import io.jsonwebtoken.Claims;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotAuthorizedException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token checks shared by the bearer authentication and by the introspection of the other services
+ **/
+@Slf4j
+@ApplicationScoped
+@RequiredArgsConstructor
+public class TokenIntrospectionService {
+
+    private static final String INVALID_TOKEN = "Invalid token";
+
+    @ConfigProperty(name = "introspection.max-batch-size")
+    int maxBatchSize;
+
+    private final TokenJwtService tokenJwtService;
+
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * Signature, expiration and revocation, through the verified token cache
+     **/
+    public Map<String, Object> validate(String token) {
+        var claims = tokenJwtService.validateTokenJwt(token);
+
+        // Tokens issued before the last password or email change, in memory
+        if (claims.get(TokenClaimEnum.ID.getLabel()) instanceof Number id
+                && tokenRevocationService.isRevoked(id.longValue(), claims.get(TokenClaimEnum.EPOCH.getLabel()) instanceof Number epoch ? epoch.intValue() : 0))
+            throw new NotAuthorizedException("Token revoked");
+        return claims;
+    }
+
+    /**
+     * One result per token, in the same order: a rejected token does not fail the batch
+     **/
+    public List<TokenIntrospectionDto> introspect(List<String> tokens) {
+        if (tokens.size() > maxBatchSize) {
+            log.warn("Introspection of {} tokens rejected, the limit is {}", tokens.size(), maxBatchSize);
+            throw new BadRequestException("At most " + maxBatchSize + " tokens per call");
+        }
+        return tokens.stream().map(this::introspect).toList();
+    }
+
+    private TokenIntrospectionDto introspect(String token) {
+        var tokenIntrospectionDto = new TokenIntrospectionDto();
+        if (token == null || token.isBlank()) {
+            tokenIntrospectionDto.setError(INVALID_TOKEN);
+            return tokenIntrospectionDto;
+        }
+
+        try {
+            var claims = validate(token);
+            tokenIntrospectionDto.setActive(true);
+            tokenIntrospectionDto.setId(claims.get(TokenClaimEnum.ID.getLabel()) instanceof Number id ? id.longValue() : null);
+            tokenIntrospectionDto.setEmail((String) claims.get(TokenClaimEnum.EMAIL.getLabel()));
+            tokenIntrospectionDto.setRole((String) claims.get(TokenClaimEnum.ROLE.getLabel()));
+            tokenIntrospectionDto.setEpoch(claims.get(TokenClaimEnum.EPOCH.getLabel()) instanceof Number epoch ? epoch.intValue() : 0);
+            tokenIntrospectionDto.setIssuedAt(getEpochSecond(claims.get(Claims.ISSUED_AT)));
+            tokenIntrospectionDto.setExpiration(getEpochSecond(claims.get(Claims.EXPIRATION)));
+        } catch (NotAuthorizedException e) {
+            // The reason is the challenge of the exception, its message is the generic HTTP status
+            tokenIntrospectionDto.setError(e.getChallenges().stream().findFirst().map(String::valueOf).orElse(INVALID_TOKEN));
+        }
+        return tokenIntrospectionDto;
+    }
+
+    private static Long getEpochSecond(Object value) {
+        if (value instanceof Date date)
+            return date.toInstant().getEpochSecond();
+        return value instanceof Number number ? number.longValue() : null;
+    }
+}
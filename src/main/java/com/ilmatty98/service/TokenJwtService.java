@@ -1,90 +1,193 @@
 package com.ilmatty98.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ilmatty98.constants.TokenAlgorithmEnum;
+import com.ilmatty98.crypto.JwtWriter;
+import com.ilmatty98.entity.TokenKey;
+import com.ilmatty98.repository.TokenKeyStore;
+import com.ilmatty98.utils.AuthenticationUtils;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SignatureAlgorithm;
 import io.quarkus.runtime.Startup;
 import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.ScheduledExecution;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.ws.rs.NotAuthorizedException;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.security.KeyFactory;
+import java.security.KeyPair;
 import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
 import java.security.Security;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.Base64;
-import java.util.Date;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 @Slf4j
 @ApplicationScoped
+@RequiredArgsConstructor
 public class TokenJwtService {
 
     @ConfigProperty(name = "token.expiration-minutes")
     long tokenExpiration;
 
-    private static RSAPublicKey publicKey;
-    private static RSAPrivateKey privateKey;
+    @ConfigProperty(name = "token.algorithm")
+    TokenAlgorithmEnum algorithm;
 
-    private static final int KEY_SIZE = 2048;
-    private static final String ALGORITHM = "RSA";
+    @ConfigProperty(name = "token.validation-cache.max-size")
+    long validationCacheMaxSize;
+
+    @ConfigProperty(name = "token.keyring.previous-keys")
+    int previousKeys;
+
+    @ConfigProperty(name = "token.keyring.encryption-key")
+    String encryptionKey;
+
+    @ConfigProperty(name = "token.key-rotation.pregeneration-delay")
+    Duration pregenerationDelay;
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final String PROVIDER = "BC";
+
+    private static final long MIN_RELOAD_INTERVAL_MS = 1000;
+
+    public static final String KEY_ROTATION_JOB = "token-key-rotation";
+
+    private final TokenKeyStore tokenKeyStore;
+
+    /**
+     * Immutable snapshot of the signing key and of the retired keys still accepted, replaced as a whole on rotation
+     **/
+    private final AtomicReference<Keyring> keyring = new AtomicReference<>();
+
+    private final AtomicLong lastReloadForKey = new AtomicLong();
+
+    private SecretKeySpec keyEncryptionKey;
+
+    /**
+     * Key generation is slow (RSA in particular): the next key pair is generated in background, long before the rotation
+     **/
+    private ExecutorService keyPairExecutor;
+
+    volatile CompletableFuture<KeyPair> nextKeyPair;
 
     @Startup
     void init() {
-        generateKeyPair();
+        Security.addProvider(new BouncyCastleProvider());
+        keyEncryptionKey = AuthenticationUtils.getAesKey(encryptionKey);
+        keyPairExecutor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("token-key-pregeneration")
+                .daemon().priority(Thread.MIN_PRIORITY).factory());
+
+        // The first replica creates the keyring, the others load it
+        reload();
+        if (keyring.get() == null)
+            rotate(Instant.MAX);
+
+        // Delayed, it does not compete with the first requests
+        if (nextKeyPair == null)
+            preGenerate(pregenerationDelay);
     }
 
-    @Scheduled(cron = "{token.key-rotation.cron}")
-    public static void generateKeyPair() {
+    @PreDestroy
+    void destroy() {
+        keyPairExecutor.shutdownNow();
+    }
+
+    /**
+     * Forces a rotation, whatever the age of the current key
+     **/
+    public void generateKeyPair() {
+        rotate(Instant.MAX);
+    }
+
+    @Scheduled(identity = KEY_ROTATION_JOB, cron = "{token.key-rotation.cron}", skipExecutionIf = LeaderSkipPredicate.class)
+    void rotateKeyPair(ScheduledExecution execution) {
+        // Only the leader rotates, the others pick its key up
         try {
-            log.info("Started generation of key pair for jwt token");
-            Security.addProvider(new BouncyCastleProvider());
-            var keyPairGenerator = KeyPairGenerator.getInstance(ALGORITHM, "BC");
-            keyPairGenerator.initialize(KEY_SIZE);
-
-            var keyPair = keyPairGenerator.generateKeyPair();
-            publicKey = (RSAPublicKey) keyPair.getPublic();
-            privateKey = (RSAPrivateKey) keyPair.getPrivate();
-            log.info("Finished generating key pair for jwt token");
+            rotate(execution.getScheduledFireTime());
         } catch (Exception e) {
-            log.error("Error creating keys", e);
+            log.error("Error rotating keys", e);
         }
     }
 
-    public String generateTokenJwt(Map<String, Object> claims) {
-        var now = Instant.now();
-        claims.put(Claims.ISSUED_AT, Date.from(now));
-        claims.put(Claims.EXPIRATION, Date.from(now.plus(tokenExpiration, ChronoUnit.MINUTES)));
+    @Scheduled(every = "{token.keyring.refresh-interval}", delayed = "{token.keyring.refresh-interval}")
+    void refresh() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Error reloading keys", e);
+        }
+    }
 
-        return Jwts.builder()
-                .claims(claims)
-                .signWith(privateKey)
-                .compact();
+    /**
+     * Access token with the fixed claim set, written without the generic claims serialization
+     **/
+    public String generateTokenJwt(Long id, String email, String role, int epoch) {
+        var issuedAt = Instant.now().getEpochSecond();
+        var expiration = issuedAt + TimeUnit.MINUTES.toSeconds(tokenExpiration);
+        return keyring.get().current().writer().write(id, email, role, epoch, issuedAt, expiration);
     }
 
-    @SneakyThrows
+    /**
+     * Public key in X.509 SubjectPublicKeyInfo format, which also identifies the key algorithm
+     **/
     public String getPublicKey() {
-        var keyFactory = KeyFactory.getInstance(ALGORITHM);
-        var keySpec = keyFactory.getKeySpec(publicKey, X509EncodedKeySpec.class);
-        var encodedKey = keySpec.getEncoded();
-        return Base64.getEncoder().encodeToString(encodedKey);
+        return keyring.get().current().encodedPublicKey();
+    }
+
+    /**
+     * Keys still accepted as a JWK Set, with the tag identifying its content
+     **/
+    public JsonWebKeySet getJwks() {
+        return keyring.get().jwks();
     }
 
     public Map<String, Object> validateTokenJwt(String token) {
+        var snapshot = keyring.get();
+        var digest = digest(token);
+        for (var key : snapshot.keys().values()) {
+            var verified = key.verifiedTokens().getIfPresent(digest);
+            if (verified != null)
+                return verified;
+        }
+
         try {
-            return Jwts.parser()
-                    .verifyWith(publicKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            var jws = snapshot.parser().parseSignedClaims(token);
+            var claims = jws.getPayload();
+            var key = keyring.get().keys().get(jws.getHeader().getKeyId());
+            if (validationCacheMaxSize > 0 && claims.getExpiration() != null && key != null)
+                key.verifiedTokens().put(digest, claims);
+            return claims;
         } catch (ExpiredJwtException e) {
             log.warn("Token is expired", e);
             throw new NotAuthorizedException("Token is expired");
@@ -94,4 +197,218 @@ public class TokenJwtService {
         }
     }
 
+    /**
+     * Creates the next key unless another replica has already done it since {@code rotatedBefore}
+     **/
+    void rotate(Instant rotatedBefore) {
+        var latest = tokenKeyStore.findLatest(1);
+        if (!latest.isEmpty() && !latest.getFirst().getTimestampCreation().toInstant().isBefore(rotatedBefore)) {
+            log.info("Token key already rotated by another replica");
+            reload();
+            return;
+        }
+
+        var generation = latest.isEmpty() ? 1 : latest.getFirst().getGeneration() + 1;
+        log.info("Started generation of {} key pair {} for jwt token", algorithm, generation);
+        var tokenKey = newTokenKey(generation);
+        if (tokenKeyStore.create(tokenKey)) {
+            tokenKeyStore.deleteBefore(generation - previousKeys);
+            log.info("Finished generating {} key pair {} for jwt token", algorithm, tokenKey.getKeyId());
+        }
+        reload();
+    }
+
+    private void reload() {
+        var tokenKeys = tokenKeyStore.findLatest(previousKeys + 1);
+        if (tokenKeys.isEmpty())
+            return;
+
+        var loaded = load(tokenKeys, keyring.get(), Instant.now());
+        var current = keyring.accumulateAndGet(loaded, (a, b) -> a == null || b.generation() >= a.generation() ? b : a);
+        if (current == loaded)
+            log.debug("Loaded keyring generation {} with {} previous keys", current.generation(), current.previous().size());
+    }
+
+    /**
+     * Reloads the keyring for a token signed with an unknown key, at most once per second:
+     * another replica may have rotated before the next refresh
+     **/
+    private Optional<SigningKey> reloadForKey(String keyId) {
+        var last = lastReloadForKey.get();
+        var now = System.currentTimeMillis();
+        if (now - last > MIN_RELOAD_INTERVAL_MS && lastReloadForKey.compareAndSet(last, now))
+            reload();
+        return Optional.ofNullable(keyring.get().keys().get(keyId));
+    }
+
+    /**
+     * A key is retired when the next one is created: it keeps verifying the tokens it signed until they have all expired,
+     * within the last {@code previousKeys} retired keys
+     **/
+    private Keyring load(List<TokenKey> tokenKeys, Keyring current, Instant now) {
+        var maxTokenLifetime = Duration.ofMinutes(tokenExpiration);
+        var keys = new LinkedHashMap<String, SigningKey>();
+        Instant retiredAt = null;
+        for (var tokenKey : tokenKeys) {
+            var existing = current == null ? null : current.keys().get(tokenKey.getKeyId());
+            var key = existing == null ? toSigningKey(tokenKey, retiredAt)
+                    : retiredAt == null ? existing : existing.retire(retiredAt);
+            if (key.isAccepted(now, maxTokenLifetime))
+                keys.put(key.keyId(), key);
+            retiredAt = tokenKey.getTimestampCreation().toInstant();
+        }
+
+        var parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(ProtectedHeader header) {
+                        var key = Optional.ofNullable(keys.get(header.getKeyId()))
+                                .or(() -> reloadForKey(header.getKeyId()))
+                                .filter(k -> k.isAccepted(Instant.now(), maxTokenLifetime))
+                                .orElseThrow(() -> new NotAuthorizedException("Unknown key " + header.getKeyId()));
+                        return key.publicKey();
+                    }
+                })
+                .build();
+        var jwks = keys.values().stream()
+                .map(SigningKey::jwk)
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+
+        var signingKey = keys.values().iterator().next();
+        var previous = keys.values().stream().skip(1).toList();
+        return new Keyring(tokenKeys.getFirst().getGeneration(), signingKey, previous, Collections.unmodifiableMap(keys),
+                parser, new JsonWebKeySet(jwks, digest(jwks)));
+    }
+
+    private void preGenerate(Duration delay) {
+        nextKeyPair = CompletableFuture.supplyAsync(this::newKeyPair,
+                CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS, keyPairExecutor));
+    }
+
+    /**
+     * Takes the pre-generated key pair if it is ready, otherwise generates one now
+     **/
+    private KeyPair takeKeyPair() {
+        var pregenerated = nextKeyPair;
+        preGenerate(pregenerationDelay);
+        if (pregenerated != null && pregenerated.isDone() && !pregenerated.isCompletedExceptionally())
+            return pregenerated.join();
+
+        if (pregenerated != null)
+            pregenerated.cancel(false);
+        log.info("No pre-generated key pair available, generating it now");
+        return newKeyPair();
+    }
+
+    @SneakyThrows
+    private KeyPair newKeyPair() {
+        var keyPairGenerator = KeyPairGenerator.getInstance(algorithm.getKeyAlgorithm(), PROVIDER);
+        keyPairGenerator.initialize(algorithm.getKeySpec());
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    private TokenKey newTokenKey(long generation) {
+        var keyPair = takeKeyPair();
+        var keyId = Jwks.builder().key(keyPair.getPublic()).idFromThumbprint().build().getId();
+
+        var tokenKey = new TokenKey();
+        tokenKey.setGeneration(generation);
+        tokenKey.setKeyId(keyId);
+        tokenKey.setAlgorithm(algorithm);
+        tokenKey.setPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        tokenKey.setPrivateKey(Base64.getEncoder().encodeToString(AuthenticationUtils.encryptAesGcm(keyEncryptionKey,
+                keyPair.getPrivate().getEncoded(), keyId.getBytes(StandardCharsets.UTF_8))));
+        tokenKey.setTimestampCreation(Timestamp.from(Instant.now()));
+        return tokenKey;
+    }
+
+    @SneakyThrows
+    private SigningKey toSigningKey(TokenKey tokenKey, Instant retiredAt) {
+        var keyFactory = KeyFactory.getInstance(tokenKey.getAlgorithm().getKeyAlgorithm(), PROVIDER);
+        var publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(tokenKey.getPublicKey())));
+
+        // A retired key only verifies, its private key is not decrypted
+        PrivateKey privateKey = null;
+        if (retiredAt == null) {
+            var encoded = AuthenticationUtils.decryptAesGcm(keyEncryptionKey, Base64.getDecoder().decode(tokenKey.getPrivateKey()),
+                    tokenKey.getKeyId().getBytes(StandardCharsets.UTF_8));
+            privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(encoded));
+        }
+
+        var signatureAlgorithm = getSignatureAlgorithm(tokenKey.getAlgorithm());
+        var jwk = Jwks.builder()
+                .key(publicKey)
+                .algorithm(signatureAlgorithm.getId())
+                .publicKeyUse("sig")
+                .idFromThumbprint()
+                .build();
+        var writer = privateKey == null ? null : new JwtWriter(signatureAlgorithm.getId(), tokenKey.getKeyId(),
+                tokenKey.getAlgorithm().getSignatureAlgorithm(), privateKey);
+        return new SigningKey(tokenKey.getKeyId(), publicKey, privateKey, signatureAlgorithm, writer, tokenKey.getPublicKey(),
+                Jwks.json(jwk), newValidationCache(), retiredAt);
+    }
+
+    /**
+     * Verified tokens, each one kept until its own expiration
+     **/
+    private Cache<String, Claims> newValidationCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(validationCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        var ttl = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttl));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, claims, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    private static SignatureAlgorithm getSignatureAlgorithm(TokenAlgorithmEnum algorithm) {
+        return switch (algorithm) {
+            case RS256 -> Jwts.SIG.RS256;
+            case ES256 -> Jwts.SIG.ES256;
+            case ED25519 -> Jwts.SIG.EdDSA;
+        };
+    }
+
+    @SneakyThrows
+    private static String digest(String token) {
+        var hash = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    public record JsonWebKeySet(String json, String tag) {
+    }
+
+    private record Keyring(long generation, SigningKey current, List<SigningKey> previous, Map<String, SigningKey> keys,
+                           JwtParser parser, JsonWebKeySet jwks) {
+    }
+
+    private record SigningKey(String keyId, PublicKey publicKey, PrivateKey privateKey,
+                              SignatureAlgorithm signatureAlgorithm, JwtWriter writer, String encodedPublicKey, String jwk,
+                              Cache<String, Claims> verifiedTokens, Instant retiredAt) {
+
+        SigningKey retire(Instant at) {
+            return retiredAt != null ? this : new SigningKey(keyId, publicKey, null, signatureAlgorithm, null,
+                    encodedPublicKey, jwk, verifiedTokens, at);
+        }
+
+        /**
+         * A retired key is dropped once every token it signed has expired
+         **/
+        boolean isAccepted(Instant now, Duration maxTokenLifetime) {
+            return retiredAt == null || retiredAt.plus(maxTokenLifetime).isAfter(now);
+        }
+    }
 }
@@ -0,0 +1,140 @@
+package com.ilmatty98.service;
+
+import com.ilmatty98.constants.EmailTypeEnum;
+import com.ilmatty98.constants.UserStateEnum;
+import com.ilmatty98.utils.AuthenticationUtils;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.spi.ObserverMethod;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs hashing, token signing/validation and email rendering with synthetic data until the JIT has compiled them,
+ * so that the first logins after a rollout are not served by interpreted code. The pod is not ready until then.
+ **/
+@Slf4j
+@Readiness
+@ApplicationScoped
+@RequiredArgsConstructor
+public class WarmUpService implements HealthCheck {
+
+    private static final String NAME = "warm-up";
+
+    private static final String EMAIL = "warm-up@localhost";
+
+    private static final int WARM_SAMPLES = 100;
+
+    /**
+     * Every dynamic label of the templates, a missing one is logged as an error on each rendering
+     **/
+    static final Map<String, String> DYNAMIC_LABELS = Map.of(
+            "email", EMAIL,
+            "href", NAME,
+            "code", NAME,
+            "date_value", NAME,
+            "device_value", NAME,
+            "hint_value", NAME,
+            "ipAddress_value", NAME);
+
+    @ConfigProperty(name = "warm-up.enabled")
+    boolean enabled;
+
+    @ConfigProperty(name = "warm-up.hashing-iterations")
+    int hashingIterations;
+
+    @ConfigProperty(name = "warm-up.iterations")
+    int iterations;
+
+    @ConfigProperty(name = "encryption.salt.size")
+    int saltSize;
+
+    private final HashingService hashingService;
+
+    private final TokenJwtService tokenJwtService;
+
+    private final EmailService emailService;
+
+    private volatile boolean ready;
+
+    /**
+     * Observed after the token keys have been generated at startup
+     **/
+    void onStart(@Observes @Priority(ObserverMethod.DEFAULT_PRIORITY + 100) StartupEvent event) {
+        if (!enabled) {
+            ready = true;
+            return;
+        }
+        Thread.ofPlatform().name(NAME).daemon().start(this::warmUp);
+    }
+
+    @Override
+    public HealthCheckResponse call() {
+        return HealthCheckResponse.named(NAME).status(ready).build();
+    }
+
+    void warmUp() {
+        var start = System.nanoTime();
+        try {
+            run("hashing", hashingIterations, () -> {
+                var encoded = hashingService.encode(NAME, AuthenticationUtils.generateSalt(saltSize));
+                hashingService.verify(NAME, encoded);
+            });
+
+            // A new id for every token, otherwise the verified token cache serves all the validations after the first one
+            var id = new AtomicLong();
+            run("token", iterations, () -> {
+                tokenJwtService.validateTokenJwt(tokenJwtService.generateTokenJwt(id.incrementAndGet(), EMAIL, UserStateEnum.VERIFIED.name(), 0));
+                tokenJwtService.getPublicKey();
+            });
+
+            run("email", iterations, () -> {
+                for (var emailType : EmailTypeEnum.values()) {
+                    emailService.renderEmail(EMAIL, "EN", emailType, DYNAMIC_LABELS);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Warm-up interrupted, the service becomes ready anyway", e);
+        } finally {
+            ready = true;
+            log.info("Warm-up completed in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Logs the first (cold) latency and the p99 of the last runs after the first one (warm) of a phase
+     **/
+    private static void run(String phase, int times, WarmUpTask task) throws Exception {
+        var latencies = new long[times];
+        for (var i = 0; i < times; i++) {
+            var start = System.nanoTime();
+            task.run();
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        if (times < 2)
+            return;
+
+        var warm = Arrays.copyOfRange(latencies, Math.max(1, times - WARM_SAMPLES), times);
+        Arrays.sort(warm);
+        var p99 = warm[(int) Math.ceil(warm.length * 0.99) - 1];
+        log.info("Warm-up {}: {} runs, cold {} ms, warm p99 {} ms", phase, times,
+                String.format("%.2f", latencies[0] / 1_000_000d), String.format("%.2f", p99 / 1_000_000d));
+    }
+
+    @FunctionalInterface
+    private interface WarmUpTask {
+        void run() throws Exception;
+    }
+}
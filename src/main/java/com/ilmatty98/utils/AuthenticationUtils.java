@@ -4,19 +4,101 @@ import lombok.experimental.UtilityClass;
 import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
 import org.bouncycastle.crypto.params.Argon2Parameters;
 
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
+import java.util.Base64;
 
 @UtilityClass
 public class AuthenticationUtils {
 
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final String AES_ALGORITHM = "AES";
+
+    private static final String AES_GCM_TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final int GCM_IV_SIZE = 12;
+
+    private static final int GCM_TAG_BITS = 128;
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
     public static byte[] generateSalt(int saltSize) {
         var salt = new byte[saltSize];
-        new SecureRandom().nextBytes(salt);
+        SECURE_RANDOM.nextBytes(salt);
         return salt;
     }
 
+    /**
+     * HMAC-SHA256 of the given parts, separated by a zero byte
+     **/
+    public static String generateHmac(SecretKeySpec key, String... parts) {
+        try {
+            var mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            for (var i = 0; i < parts.length; i++) {
+                if (i > 0)
+                    mac.update((byte) 0);
+                mac.update(parts[i].getBytes(StandardCharsets.UTF_8));
+            }
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error generating hmac", e);
+        }
+    }
+
+    /**
+     * Random HMAC key, valid for the lifetime of the process
+     **/
+    public static SecretKeySpec generateHmacKey() {
+        return new SecretKeySpec(generateSalt(32), HMAC_ALGORITHM);
+    }
+
+    public static SecretKeySpec getAesKey(String base64Key) {
+        return new SecretKeySpec(Base64.getDecoder().decode(base64Key), AES_ALGORITHM);
+    }
+
+    /**
+     * AES-GCM encryption bound to the associated data, the random IV is prepended to the ciphertext
+     **/
+    public static byte[] encryptAesGcm(SecretKeySpec key, byte[] plaintext, byte[] associatedData) {
+        try {
+            var iv = generateSalt(GCM_IV_SIZE);
+            var cipher = Cipher.getInstance(AES_GCM_TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, iv));
+            cipher.updateAAD(associatedData);
+            var ciphertext = cipher.doFinal(plaintext);
+
+            var result = new byte[iv.length + ciphertext.length];
+            System.arraycopy(iv, 0, result, 0, iv.length);
+            System.arraycopy(ciphertext, 0, result, iv.length, ciphertext.length);
+            return result;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error encrypting with aes-gcm", e);
+        }
+    }
+
+    public static byte[] decryptAesGcm(SecretKeySpec key, byte[] encrypted, byte[] associatedData) {
+        try {
+            var cipher = Cipher.getInstance(AES_GCM_TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, encrypted, 0, GCM_IV_SIZE));
+            cipher.updateAAD(associatedData);
+            return cipher.doFinal(encrypted, GCM_IV_SIZE, encrypted.length - GCM_IV_SIZE);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error decrypting with aes-gcm", e);
+        }
+    }
+
     public static byte[] generateArgon2id(String password, byte[] salt, int argon2idSize, int iteration, int memLimitKB, int parallelism) {
+        return generateArgon2id(password.getBytes(StandardCharsets.UTF_8), salt, argon2idSize, iteration, memLimitKB, parallelism);
+    }
+
+    public static byte[] generateArgon2id(byte[] password, byte[] salt, int argon2idSize, int iteration, int memLimitKB, int parallelism) {
         var generator = new Argon2BytesGenerator();
         var aragon2id = new byte[argon2idSize];
         var builder = new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
@@ -27,7 +109,7 @@ public class AuthenticationUtils {
                 .withSalt(salt);
 
         generator.init(builder.build());
-        generator.generateBytes(password.getBytes(StandardCharsets.UTF_8), aragon2id, 0, aragon2id.length);
+        generator.generateBytes(password, aragon2id, 0, aragon2id.length);
         return aragon2id;
     }
 }
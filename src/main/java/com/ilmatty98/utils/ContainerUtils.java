@@ -0,0 +1,45 @@
+package com.ilmatty98.utils;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@Slf4j
+@UtilityClass
+public class ContainerUtils {
+
+    /**
+     * cgroup v2 first, then cgroup v1
+     **/
+    private static final List<Path> MEMORY_LIMIT_FILES = List.of(
+            Path.of("/sys/fs/cgroup/memory.max"),
+            Path.of("/sys/fs/cgroup/memory/memory.limit_in_bytes"));
+
+    /**
+     * Returns the memory limit of the container in bytes, or Long.MAX_VALUE when it is not limited
+     **/
+    public static long getMemoryLimit() {
+        for (var file : MEMORY_LIMIT_FILES) {
+            try {
+                if (Files.isReadable(file)) {
+                    var value = Files.readString(file).trim();
+                    if (!"max".equals(value))
+                        return Long.parseLong(value);
+                }
+            } catch (Exception e) {
+                log.warn("Unable to read container memory limit from {}", file, e);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Memory usable by the application: the smaller between the container limit and the max heap
+     **/
+    public static long getUsableMemory() {
+        return Math.min(getMemoryLimit(), Runtime.getRuntime().maxMemory());
+    }
+}
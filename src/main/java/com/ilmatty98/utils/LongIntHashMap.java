@@ -0,0 +1,96 @@
+package com.ilmatty98.utils;
+
+/**
+ * Open addressing map from long to int on two primitive arrays: 12 bytes per slot, no boxing and no entry objects.
+ * The key 0 marks the free slots, its value is kept apart.
+ * Not thread safe, readers share a copy that is no longer modified.
+ **/
+public final class LongIntHashMap {
+
+    private static final long FREE_KEY = 0;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+
+    private final long[] keys;
+
+    private final int[] values;
+
+    private final int shift;
+
+    private int size;
+
+    private boolean hasFreeKey;
+
+    private int freeKeyValue;
+
+    public LongIntHashMap(int expectedSize) {
+        var capacity = Integer.highestOneBit(Math.max(2, (int) Math.ceil(expectedSize / LOAD_FACTOR)) * 2 - 1);
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.shift = Long.numberOfLeadingZeros(capacity - 1L);
+    }
+
+    public int get(long key, int defaultValue) {
+        if (key == FREE_KEY)
+            return hasFreeKey ? freeKeyValue : defaultValue;
+
+        for (var i = slot(key); ; i = (i + 1) & (keys.length - 1)) {
+            if (keys[i] == key)
+                return values[i];
+            if (keys[i] == FREE_KEY)
+                return defaultValue;
+        }
+    }
+
+    public void put(long key, int value) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey)
+                size++;
+            hasFreeKey = true;
+            freeKeyValue = value;
+            return;
+        }
+
+        var i = slot(key);
+        while (keys[i] != FREE_KEY && keys[i] != key) {
+            i = (i + 1) & (keys.length - 1);
+        }
+
+        if (keys[i] == FREE_KEY) {
+            if (size + 1 > keys.length * LOAD_FACTOR)
+                throw new IllegalStateException("Map is full, copy it with a larger capacity");
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+    }
+
+    /**
+     * Returns a copy with room for the given number of new keys
+     **/
+    public LongIntHashMap copy(int additional) {
+        var copy = new LongIntHashMap(size + additional);
+        if (hasFreeKey)
+            copy.put(FREE_KEY, freeKeyValue);
+        for (var i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY)
+                copy.put(keys[i], values[i]);
+        }
+        return copy;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long memoryBytes() {
+        return (long) keys.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    private int slot(long key) {
+        // Fibonacci hashing spreads the sequential user ids over the whole table
+        return (int) ((key * PHI) >>> shift);
+    }
+}
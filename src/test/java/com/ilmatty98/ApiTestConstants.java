@@ -17,6 +17,11 @@ public abstract class ApiTestConstants {
     protected static final String SEND_HINT_URL = BASE_PATH_AUTHENTICATION + SEND_HINT;
     protected static final String SIGN_UP_URL = BASE_PATH_AUTHENTICATION + SIGN_UP;
     protected static final String LOG_IN_URL = BASE_PATH_AUTHENTICATION + LOG_IN;
+    protected static final String REFRESH_URL = BASE_PATH_AUTHENTICATION + REFRESH;
+
+    protected static final String CALIBRATION_URL = BASE_PATH_MANAGEMENT + CALIBRATION;
+    protected static final String JWKS_URL = BASE_PATH_WELL_KNOWN + JWKS;
+    protected static final String INTROSPECT_URL = BASE_PATH_INTROSPECTION + INTROSPECT;
 
     protected static final String AUTH_HEADER_NAME = "Authorization";
     protected static final String AUTH_HEADER_PREFIX = "Bearer ";
@@ -9,9 +9,12 @@ import com.ilmatty98.dto.request.SignUpDto;
 import com.ilmatty98.dto.response.AccessDto;
 import com.ilmatty98.entity.User;
 import com.ilmatty98.mapper.AuthenticationMapper;
+import com.ilmatty98.repository.TokenKeyRepository;
 import com.ilmatty98.repository.UserRepository;
 import com.ilmatty98.service.EmailService;
 import com.ilmatty98.service.TokenJwtService;
+import com.ilmatty98.utils.AuthenticationUtils;
+import io.jsonwebtoken.Jwts;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import jakarta.inject.Inject;
@@ -26,9 +29,15 @@ import org.junit.jupiter.api.TestInstance;
 
 import java.lang.reflect.Field;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.spec.PKCS8EncodedKeySpec;
 import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
 import java.util.Random;
 
 import static io.restassured.RestAssured.given;
@@ -47,6 +56,9 @@ public abstract class AuthenticationServiceTests extends ApiTestConstants {
     @Inject
     protected UserRepository userRepository;
 
+    @Inject
+    protected TokenKeyRepository tokenKeyRepository;
+
     @Inject
     protected AuthenticationMapper authenticationMapper;
 
@@ -56,6 +68,15 @@ public abstract class AuthenticationServiceTests extends ApiTestConstants {
     @ConfigProperty(name = "quarkus.mailer.from")
     protected String emailFrom;
 
+    @ConfigProperty(name = "introspection.client-secret")
+    protected String introspectionClientSecret;
+
+    @ConfigProperty(name = "management.client-secret")
+    protected String managementClientSecret;
+
+    @ConfigProperty(name = "token.keyring.encryption-key")
+    protected String keyringEncryptionKey;
+
     protected static GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP);
 
     private static final Random random = new Random();
@@ -244,6 +265,27 @@ public abstract class AuthenticationServiceTests extends ApiTestConstants {
         return logIn(email, password).getToken();
     }
 
+    /**
+     * Token with arbitrary claims, signed with the current key: the service only issues the fixed claim set
+     **/
+    @SneakyThrows
+    protected String generateTokenJwt(Map<String, Object> claims) {
+        var tokenKey = tokenKeyRepository.findLatest(1).getFirst();
+        var encoded = AuthenticationUtils.decryptAesGcm(AuthenticationUtils.getAesKey(keyringEncryptionKey),
+                Base64.getDecoder().decode(tokenKey.getPrivateKey()), tokenKey.getKeyId().getBytes(StandardCharsets.UTF_8));
+        var privateKey = KeyFactory.getInstance(tokenKey.getAlgorithm().getKeyAlgorithm())
+                .generatePrivate(new PKCS8EncodedKeySpec(encoded));
+
+        var now = Instant.now();
+        return Jwts.builder()
+                .header().keyId(tokenKey.getKeyId()).and()
+                .claims(claims)
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(Duration.ofMinutes(tokenExpiration))))
+                .signWith(privateKey)
+                .compact();
+    }
+
     protected void testBetweenTimestamp(Timestamp one, Timestamp two) {
         var condition = Duration.between(one.toLocalDateTime(), two.toLocalDateTime()).abs().toMinutes() <= 1;
         assertTrue(condition, "The timestamps are not within 1 minute of each other");
@@ -0,0 +1,57 @@
+package com.ilmatty98.crypto;
+
+import com.ilmatty98.utils.AuthenticationUtils;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Argon2idGeneratorTest {
+
+    private static final String PASSWORD = "password";
+
+    @ParameterizedTest
+    @CsvSource({
+            "1, 8, 1, 16, 4",
+            "3, 64, 4, 128, 32",
+            "2, 100, 3, 16, 64",
+            "3, 1000, 4, 128, 256",
+            "1, 4096, 2, 32, 65",
+            "4, 333, 1, 8, 200"
+    })
+    void testSameOutputAsBouncyCastle(int iterations, int memoryKB, int parallelism, int saltSize, int outLen) {
+        var salt = AuthenticationUtils.generateSalt(saltSize);
+        var expected = AuthenticationUtils.generateArgon2id(PASSWORD, salt, outLen, iterations, memoryKB, parallelism);
+
+        var generator = new Argon2idGenerator(iterations, memoryKB, parallelism);
+        var memory = new long[generator.getMemoryBlocks() * Argon2idGenerator.QWORDS_IN_BLOCK];
+        var actual = generator.generate(PASSWORD.getBytes(StandardCharsets.UTF_8), salt, outLen, memory);
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"3, 1000, 4", "1, 64, 1"})
+    void testPooledMatrixReuse(int iterations, int memoryKB, int parallelism) {
+        var generator = new Argon2idGenerator(iterations, memoryKB, parallelism);
+        var pool = new Argon2MemoryPool(1, generator.getMemoryBlocks());
+
+        for (var i = 0; i < 3; i++) {
+            var salt = AuthenticationUtils.generateSalt(128);
+            var expected = AuthenticationUtils.generateArgon2id(PASSWORD, salt, 256, iterations, memoryKB, parallelism);
+
+            var matrix = pool.lease(generator.getMemoryBlocks());
+            try {
+                assertArrayEquals(expected, generator.generate(PASSWORD.getBytes(StandardCharsets.UTF_8), salt, 256, matrix));
+            } finally {
+                pool.release(matrix, generator.getMemoryBlocks());
+            }
+        }
+
+        assertEquals(1, pool.allocations());
+        assertEquals(1, pool.available());
+    }
+}
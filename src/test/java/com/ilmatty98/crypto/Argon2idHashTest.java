@@ -0,0 +1,52 @@
+package com.ilmatty98.crypto;
+
+import com.ilmatty98.utils.AuthenticationUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Argon2idHashTest {
+
+    @Test
+    void testEncodeDecode() {
+        var parameters = new Argon2idParameters(3, 64000, 4, 256);
+        var salt = AuthenticationUtils.generateSalt(128);
+        var hash = AuthenticationUtils.generateSalt(256);
+
+        var encoded = new Argon2idHash(parameters, salt, hash).encode();
+        var decoded = Argon2idHash.decode(encoded);
+
+        assertTrue(encoded.startsWith("$argon2id$v=19$m=64000,t=3,p=4$"));
+        assertFalse(encoded.endsWith("=") || encoded.contains("=$"));
+        assertEquals(parameters, decoded.parameters());
+        assertArrayEquals(salt, decoded.salt());
+        assertArrayEquals(hash, decoded.hash());
+    }
+
+    @Test
+    void testDecodeReferenceFormat() {
+        // Encoded vector of the reference implementation (test.c)
+        var decoded = Argon2idHash.decode("$argon2id$v=19$m=65536,t=2,p=1$c29tZXNhbHQ$CTFhFdXPJO1aFaMaO6Mm5c8y7cJHAph8ArZWb2GRPPc");
+
+        assertEquals(new Argon2idParameters(2, 65536, 1, 32), decoded.parameters());
+        assertArrayEquals("somesalt".getBytes(), decoded.salt());
+        assertEquals("CTFhFdXPJO1aFaMaO6Mm5c8y7cJHAph8ArZWb2GRPPc", Base64.getEncoder().withoutPadding().encodeToString(decoded.hash()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "c29tZXNhbHQ=",
+            "$argon2i$v=19$m=65536,t=2,p=1$c29tZXNhbHQ$CTFhFdXPJO1aFaMaO6Mm5c8y7cJHAph8ArZWb2GRPPc",
+            "$argon2id$v=16$m=65536,t=2,p=1$c29tZXNhbHQ$CTFhFdXPJO1aFaMaO6Mm5c8y7cJHAph8ArZWb2GRPPc",
+            "$argon2id$v=19$t=2,m=65536,p=1$c29tZXNhbHQ$CTFhFdXPJO1aFaMaO6Mm5c8y7cJHAph8ArZWb2GRPPc",
+            "$argon2id$v=19$m=65536,t=2,p=1$c29tZXNhbHQ"
+    })
+    void testDecodeInvalid(String encoded) {
+        assertThrows(IllegalArgumentException.class, () -> Argon2idHash.decode(encoded));
+    }
+}
@@ -0,0 +1,84 @@
+package com.ilmatty98.crypto;
+
+import com.ilmatty98.constants.TokenAlgorithmEnum;
+import com.ilmatty98.constants.TokenClaimEnum;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token creation: claims map through the jjwt builder (previous behaviour) against the JwtWriter.
+ * Run the main method on the test classpath after mvn test-compile, add -prof gc for the allocations
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtWriterBenchmark {
+
+    private static final String KEY_ID = "KcqnG9pLhf7YtJyD3kEJPvHSCgpz9vQfkJVyXWz1oVg";
+
+    @Param
+    private TokenAlgorithmEnum algorithm;
+
+    private KeyPair keyPair;
+
+    private SignatureAlgorithm signatureAlgorithm;
+
+    private JwtWriter jwtWriter;
+
+    @Setup
+    public void setUp() throws Exception {
+        var keyPairGenerator = KeyPairGenerator.getInstance(algorithm.getKeyAlgorithm());
+        keyPairGenerator.initialize(algorithm.getKeySpec());
+        keyPair = keyPairGenerator.generateKeyPair();
+        signatureAlgorithm = switch (algorithm) {
+            case RS256 -> Jwts.SIG.RS256;
+            case ES256 -> Jwts.SIG.ES256;
+            case ED25519 -> Jwts.SIG.EdDSA;
+        };
+        jwtWriter = new JwtWriter(signatureAlgorithm.getId(), KEY_ID, algorithm.getSignatureAlgorithm(), keyPair.getPrivate());
+    }
+
+    @Benchmark
+    public String jjwtBuilder() {
+        var claims = new HashMap<String, Object>();
+        claims.put(TokenClaimEnum.ID.getLabel(), 12345L);
+        claims.put(TokenClaimEnum.EMAIL.getLabel(), "email@test.com");
+        claims.put(TokenClaimEnum.ROLE.getLabel(), "VERIFIED");
+        claims.put(TokenClaimEnum.EPOCH.getLabel(), 1);
+
+        var now = Instant.now();
+        claims.put(Claims.ISSUED_AT, Date.from(now));
+        claims.put(Claims.EXPIRATION, Date.from(now.plus(10, ChronoUnit.MINUTES)));
+        return Jwts.builder()
+                .header().keyId(KEY_ID).and()
+                .claims(claims)
+                .signWith(keyPair.getPrivate(), signatureAlgorithm)
+                .compact();
+    }
+
+    @Benchmark
+    public String jwtWriter() {
+        var now = Instant.now().getEpochSecond();
+        return jwtWriter.write(12345L, "email@test.com", "VERIFIED", 1, now, now + 600);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtWriterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
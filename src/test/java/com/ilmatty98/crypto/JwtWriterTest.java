@@ -0,0 +1,122 @@
+package com.ilmatty98.crypto;
+
+import com.ilmatty98.constants.TokenAlgorithmEnum;
+import com.ilmatty98.constants.TokenClaimEnum;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.RSAKeyGenParameterSpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtWriterTest {
+
+    @ParameterizedTest
+    @EnumSource(TokenAlgorithmEnum.class)
+    void testVerifiedByJjwt(TokenAlgorithmEnum algorithm) throws Exception {
+        var keyPair = generateKeyPair(algorithm);
+        var writer = new JwtWriter(getSignatureAlgorithm(algorithm).getId(), "kid-1", algorithm.getSignatureAlgorithm(),
+                keyPair.getPrivate());
+        var issuedAt = Instant.now().getEpochSecond();
+
+        var token = writer.write(42, "email@test.com", "VERIFIED", 3, issuedAt, issuedAt + 600);
+        var jws = Jwts.parser().verifyWith(keyPair.getPublic()).build().parseSignedClaims(token);
+        var claims = jws.getPayload();
+
+        assertEquals("kid-1", jws.getHeader().getKeyId());
+        assertEquals(getSignatureAlgorithm(algorithm).getId(), jws.getHeader().getAlgorithm());
+        assertEquals(42, claims.get(TokenClaimEnum.ID.getLabel()));
+        assertEquals("email@test.com", claims.get(TokenClaimEnum.EMAIL.getLabel()));
+        assertEquals("VERIFIED", claims.get(TokenClaimEnum.ROLE.getLabel()));
+        assertEquals(3, claims.get(TokenClaimEnum.EPOCH.getLabel()));
+        assertEquals(Date.from(Instant.ofEpochSecond(issuedAt)), claims.getIssuedAt());
+        assertEquals(Date.from(Instant.ofEpochSecond(issuedAt + 600)), claims.getExpiration());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\"quoted\\\"@test.com", "àèìòù@tést.com", "tab\t@test.com", "emoji😀@test.com"})
+    void testEscapedEmail(String email) throws Exception {
+        var keyPair = generateKeyPair(TokenAlgorithmEnum.ES256);
+        var writer = new JwtWriter(Jwts.SIG.ES256.getId(), "kid", TokenAlgorithmEnum.ES256.getSignatureAlgorithm(), keyPair.getPrivate());
+        var issuedAt = Instant.now().getEpochSecond();
+
+        var token = writer.write(Long.MAX_VALUE, email, "VERIFIED", 0, issuedAt, issuedAt + 600);
+        var claims = Jwts.parser().verifyWith(keyPair.getPublic()).build().parseSignedClaims(token).getPayload();
+
+        assertEquals(email, claims.get(TokenClaimEnum.EMAIL.getLabel()));
+        assertEquals(Long.MAX_VALUE, claims.get(TokenClaimEnum.ID.getLabel()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"high\uD83D@test.com", "low\uDE00@test.com", "reversed\uDE00\uD83D@test.com", "end@test.com\uD83D"})
+    void testUnpairedSurrogate(String email) throws Exception {
+        var keyPair = generateKeyPair(TokenAlgorithmEnum.ES256);
+        var writer = new JwtWriter(Jwts.SIG.ES256.getId(), "kid", TokenAlgorithmEnum.ES256.getSignatureAlgorithm(), keyPair.getPrivate());
+        var issuedAt = Instant.now().getEpochSecond();
+
+        var token = writer.write(1, email, "VERIFIED", 0, issuedAt, issuedAt + 600);
+        var payload = Base64.getUrlDecoder().decode(token.split("\\.")[1]);
+        var claims = Jwts.parser().verifyWith(keyPair.getPublic()).build().parseSignedClaims(token).getPayload();
+
+        // Valid UTF-8, with the same replacement as String.getBytes
+        assertDoesNotThrow(() -> StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(payload)));
+        assertEquals(new String(email.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8), claims.get(TokenClaimEnum.EMAIL.getLabel()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {Long.MIN_VALUE, Long.MIN_VALUE + 1, -10, -1, 0, 9, Long.MAX_VALUE})
+    void testNumbers(long value) throws Exception {
+        var keyPair = generateKeyPair(TokenAlgorithmEnum.ES256);
+        var writer = new JwtWriter(Jwts.SIG.ES256.getId(), "kid", TokenAlgorithmEnum.ES256.getSignatureAlgorithm(), keyPair.getPrivate());
+
+        var issuedAt = Instant.now().getEpochSecond();
+
+        var token = writer.write(value, "email@test.com", "VERIFIED", 0, issuedAt, issuedAt + 600);
+        var payload = new String(Base64.getUrlDecoder().decode(token.split("\\.")[1]), StandardCharsets.UTF_8);
+        var claims = Jwts.parser().verifyWith(keyPair.getPublic()).build().parseSignedClaims(token).getPayload();
+
+        assertTrue(payload.contains("\"" + TokenClaimEnum.ID.getLabel() + "\":" + value + ","), payload);
+        assertEquals(value, ((Number) claims.get(TokenClaimEnum.ID.getLabel())).longValue());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2048, 4096})
+    void testSignatureLargerThanBuffer(int keySize) throws Exception {
+        var keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(new RSAKeyGenParameterSpec(keySize, RSAKeyGenParameterSpec.F4));
+        var keyPair = keyPairGenerator.generateKeyPair();
+        var writer = new JwtWriter(Jwts.SIG.RS256.getId(), "kid", TokenAlgorithmEnum.RS256.getSignatureAlgorithm(), keyPair.getPrivate());
+        var issuedAt = Instant.now().getEpochSecond();
+
+        // The pooled buffers are reused by the second token
+        for (var i = 0; i < 2; i++) {
+            var token = writer.write(i, "x".repeat(300) + "@test.com", "VERIFIED", 0, issuedAt, issuedAt + 600);
+            var claims = Jwts.parser().verifyWith(keyPair.getPublic()).build().parseSignedClaims(token).getPayload();
+            assertEquals(i, claims.get(TokenClaimEnum.ID.getLabel()));
+        }
+    }
+
+    private static KeyPair generateKeyPair(TokenAlgorithmEnum algorithm) throws Exception {
+        var keyPairGenerator = KeyPairGenerator.getInstance(algorithm.getKeyAlgorithm());
+        keyPairGenerator.initialize(algorithm.getKeySpec());
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    private static SignatureAlgorithm getSignatureAlgorithm(TokenAlgorithmEnum algorithm) {
+        return switch (algorithm) {
+            case RS256 -> Jwts.SIG.RS256;
+            case ES256 -> Jwts.SIG.ES256;
+            case ED25519 -> Jwts.SIG.EdDSA;
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.ilmatty98.crypto;
+
+import com.ilmatty98.utils.AuthenticationUtils;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class NativePasswordHasherTest {
+
+    private final PasswordHasher bouncyCastle = new BouncyCastlePasswordHasher();
+
+    private final PasswordHasher nativeHasher = NativePasswordHasher.load("argon2").orElse(null);
+
+    @BeforeEach
+    void checkLibrary() {
+        assumeTrue(nativeHasher != null, "libargon2 not installed");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "2, 16, 1, password, somesalt, 09316115d5cf24ed5a15a31a3ba326e5cf32edc24702987c02b6566f61913cf7",
+            "2, 8, 2, password, somesalt, 6d093c501fd5999645e0ea3bf620d7b8be7fd2db59c20d9fff9539da2bf57037",
+            "2, 16, 1, password, diffsalt, bdf32b05ccc42eb15d58fd19b1f856b113da1e9a5874fdcc544308565aa8141c"
+    })
+    void testReferenceVectors(int iterations, int memoryLog2, int parallelism, String password, String salt, String expected) {
+        var parameters = new Argon2idParameters(iterations, 1 << memoryLog2, parallelism, 32);
+
+        assertArrayEquals(Hex.decode(expected), nativeHasher.hash(password.getBytes(StandardCharsets.UTF_8),
+                salt.getBytes(StandardCharsets.UTF_8), parameters));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"3, 64000, 4, 256", "1, 1024, 8, 64", "2, 2048, 3, 128"})
+    void testSameAsBouncyCastle(int iterations, int memoryKB, int parallelism, int size) {
+        var parameters = new Argon2idParameters(iterations, memoryKB, parallelism, size);
+        var password = "password".getBytes(StandardCharsets.UTF_8);
+        var salt = AuthenticationUtils.generateSalt(128);
+
+        assertArrayEquals(bouncyCastle.hash(password, salt, parameters), nativeHasher.hash(password, salt, parameters));
+    }
+
+    @Test
+    void testInvalidParameters() {
+        var parameters = new Argon2idParameters(0, 1024, 1, 32);
+        var exception = assertThrows(IllegalStateException.class,
+                () -> nativeHasher.hash(new byte[8], new byte[16], parameters));
+
+        assertTrue(exception.getMessage().startsWith("Error generating argon2id"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.ilmatty98.crypto;
+
+import com.ilmatty98.utils.AuthenticationUtils;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PasswordHasherTest {
+
+    private final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+
+    private final PasswordHasher bouncyCastle = new BouncyCastlePasswordHasher();
+
+    private final PasswordHasher pooled = new PooledPasswordHasher(new Argon2MemoryPool(1, 1 << 16), forkJoinPool);
+
+    @AfterAll
+    void shutdown() {
+        forkJoinPool.shutdownNow();
+    }
+
+    /**
+     * Argon2id v1.3 vectors of the reference implementation (test.c), memory given as log2 of KB
+     **/
+    @ParameterizedTest
+    @CsvSource({
+            "2, 16, 1, password, somesalt, 09316115d5cf24ed5a15a31a3ba326e5cf32edc24702987c02b6566f61913cf7",
+            "2, 8, 1, password, somesalt, 9dfeb910e80bad0311fee20f9c0e2b12c17987b4cac90c2ef54d5b3021c68bfe",
+            "2, 8, 2, password, somesalt, 6d093c501fd5999645e0ea3bf620d7b8be7fd2db59c20d9fff9539da2bf57037",
+            "1, 16, 1, password, somesalt, f6a5adc1ba723dddef9b5ac1d464e180fcd9dffc9d1cbf76cca2fed795d9ca98",
+            "4, 16, 1, password, somesalt, 9025d48e68ef7395cca9079da4c4ec3affb3c8911fe4f86d1a2520856f63172c",
+            "2, 16, 1, differentpassword, somesalt, 0b84d652cf6b0c4beaef0dfe278ba6a80df6696281d7e0d2891b817d8c458fde",
+            "2, 16, 1, password, diffsalt, bdf32b05ccc42eb15d58fd19b1f856b113da1e9a5874fdcc544308565aa8141c"
+    })
+    void testReferenceVectors(int iterations, int memoryLog2, int parallelism, String password, String salt, String expected) {
+        var parameters = new Argon2idParameters(iterations, 1 << memoryLog2, parallelism, 32);
+        var passwordBytes = password.getBytes(StandardCharsets.UTF_8);
+        var saltBytes = salt.getBytes(StandardCharsets.UTF_8);
+
+        assertArrayEquals(Hex.decode(expected), bouncyCastle.hash(passwordBytes, saltBytes, parameters));
+        assertArrayEquals(Hex.decode(expected), pooled.hash(passwordBytes, saltBytes, parameters));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"3, 64000, 4, 256", "1, 1024, 8, 64", "2, 2048, 3, 128", "1, 512, 16, 32"})
+    void testParallelLanesSameAsBouncyCastle(int iterations, int memoryKB, int parallelism, int size) {
+        var parameters = new Argon2idParameters(iterations, memoryKB, parallelism, size);
+        var password = "password".getBytes(StandardCharsets.UTF_8);
+        var salt = AuthenticationUtils.generateSalt(128);
+
+        assertArrayEquals(bouncyCastle.hash(password, salt, parameters), pooled.hash(password, salt, parameters));
+    }
+
+    @Test
+    void testConcurrentHashes() {
+        var parameters = new Argon2idParameters(2, 4096, 4, 64);
+        var password = "password".getBytes(StandardCharsets.UTF_8);
+        var salt = AuthenticationUtils.generateSalt(16);
+        var expected = bouncyCastle.hash(password, salt, parameters);
+
+        IntStream.range(0, 8).parallel()
+                .forEach(i -> assertArrayEquals(expected, pooled.hash(password, salt, parameters)));
+    }
+}
@@ -11,6 +11,7 @@ import java.security.SecureRandom;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.UUID;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,21 +25,19 @@ class AuthenticationMapperTest extends AuthenticationServiceTests {
         final var secureRandom = new SecureRandom();
         var signUpDto = fillObject(new SignUpDto());
 
-        var salt = new byte[128];
-        secureRandom.nextBytes(salt);
-
         var hash = new byte[256];
         secureRandom.nextBytes(hash);
+        var encodedHash = authenticationMapper.base64Encoding(hash);
+        var verificationCode = UUID.randomUUID().toString();
 
         var timestamp = Timestamp.from(Instant.now());
         var userStateEnum = UserStateEnum.VERIFIED;
 
-        var user = authenticationMapper.newUser(signUpDto, salt, hash, timestamp, userStateEnum);
+        var user = authenticationMapper.newUser(signUpDto, encodedHash, verificationCode, timestamp, userStateEnum);
 
         assertNull(user.getId());
         assertEquals(signUpDto.getEmail(), user.getEmail());
-        assertEquals(authenticationMapper.base64Encoding(salt), user.getSalt());
-        assertEquals(authenticationMapper.base64Encoding(hash), user.getHash());
+        assertEquals(encodedHash, user.getHash());
         assertEquals(authenticationMapper.base64EncodingString(signUpDto.getProtectedSymmetricKey()), user.getProtectedSymmetricKey());
         assertEquals(authenticationMapper.base64EncodingString(signUpDto.getInitializationVector()), user.getInitializationVector());
         assertEquals(timestamp, user.getTimestampCreation());
@@ -48,7 +47,7 @@ class AuthenticationMapperTest extends AuthenticationServiceTests {
         assertEquals(userStateEnum, user.getState());
         assertEquals(signUpDto.getHint(), user.getHint());
         assertEquals(signUpDto.getPropic(), user.getPropic());
-        assertNotNull(user.getVerificationCode());
+        assertEquals(verificationCode, user.getVerificationCode());
     }
 
     @Test
@@ -56,16 +55,18 @@ class AuthenticationMapperTest extends AuthenticationServiceTests {
         var user = fillObject(new User());
         var token = generateRandomString(2048);
         var tokenPublicKey = generateRandomString(1024);
+        var refreshToken = generateRandomString(43);
 
         var protectedSymmetricKey = user.getProtectedSymmetricKey();
         var initializationVector = user.getInitializationVector();
         user.setProtectedSymmetricKey(authenticationMapper.base64EncodingString(protectedSymmetricKey));
         user.setInitializationVector(authenticationMapper.base64EncodingString(initializationVector));
 
-        var loginDto = authenticationMapper.newAccessDto(user, token, tokenPublicKey);
+        var loginDto = authenticationMapper.newAccessDto(user, token, tokenPublicKey, refreshToken);
 
         assertEquals(token, loginDto.getToken());
         assertEquals(tokenPublicKey, loginDto.getTokenPublicKey());
+        assertEquals(refreshToken, loginDto.getRefreshToken());
         assertEquals(protectedSymmetricKey, loginDto.getProtectedSymmetricKey());
         assertEquals(initializationVector, loginDto.getInitializationVector());
         assertEquals(user.getLanguage(), loginDto.getLanguage());
@@ -127,12 +128,4 @@ class AuthenticationMapperTest extends AuthenticationServiceTests {
         assertNull(actualOutput2);
     }
 
-    @Test
-    void testGetUUID() {
-        var uuid = authenticationMapper.getUUID();
-        assertNotNull(uuid);
-        assertEquals(36, uuid.length());
-        assertTrue(uuid.matches("[a-f0-9]{8}-[a-f0-9]{4}-[a-f0-9]{4}-[a-f0-9]{4}-[a-f0-9]{12}"));
-    }
-
 }
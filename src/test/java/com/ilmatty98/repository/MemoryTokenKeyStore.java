@@ -0,0 +1,30 @@
+package com.ilmatty98.repository;
+
+import com.ilmatty98.entity.TokenKey;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Local stand-in for the database keyring, shared by the services built in the same test to act as replicas
+ **/
+public class MemoryTokenKeyStore implements TokenKeyStore {
+
+    private final ConcurrentSkipListMap<Long, TokenKey> tokenKeys = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+
+    @Override
+    public List<TokenKey> findLatest(int count) {
+        return tokenKeys.values().stream().limit(count).toList();
+    }
+
+    @Override
+    public boolean create(TokenKey tokenKey) {
+        return tokenKeys.putIfAbsent(tokenKey.getGeneration(), tokenKey) == null;
+    }
+
+    @Override
+    public void deleteBefore(long generation) {
+        tokenKeys.tailMap(generation, false).clear();
+    }
+}
@@ -0,0 +1,164 @@
+package com.ilmatty98.repository;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup of an authenticated user on a table with millions of rows: email and state predicates (previous behaviour)
+ * against the primary key, with the state checked in memory. The query plans are printed by the setup.
+ * Plain JDBC on H2, the statements are the ones generated by Hibernate.
+ * Run the main method on the test classpath after mvn test-compile
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserLookupBenchmark {
+
+    private static final String COLUMNS = "ID, EMAIL, HASH, PROTECTED_SYMMETRIC_KEY, INITIALIZATION_VECTOR, TIMESTAMP_CREATION, " +
+            "TIMESTAMP_LAST_ACCESS, TIMESTAMP_PASSWORD, TIMESTAMP_EMAIL, HINT, PROPIC, LANGUAGE, STATE, VERIFICATION_CODE, " +
+            "ATTEMPT, NEW_EMAIL";
+
+    private static final String BY_EMAIL_AND_STATE = "SELECT " + COLUMNS + " FROM USERS WHERE EMAIL = ? AND STATE = ? " +
+            "FETCH FIRST 1 ROWS ONLY";
+
+    private static final String BY_ID = "SELECT " + COLUMNS + " FROM USERS WHERE ID = ?";
+
+    @Param({"2000000"})
+    private int rows;
+
+    private Path directory;
+
+    private Connection connection;
+
+    private PreparedStatement byEmailAndState;
+
+    private PreparedStatement byId;
+
+    @Setup
+    public void setUp() throws SQLException, IOException {
+        // On disk, as the real table: millions of rows do not fit the benchmark heap
+        directory = Files.createTempDirectory("users");
+        connection = DriverManager.getConnection("jdbc:h2:" + directory.resolve("users") + ";MODE=Oracle");
+        try (var statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE USERS
+                    (
+                        ID                      NUMBER(38) NOT NULL,
+                        EMAIL                   VARCHAR2(100) NOT NULL UNIQUE,
+                        HASH                    CLOB         NOT NULL,
+                        PROTECTED_SYMMETRIC_KEY CLOB         NOT NULL,
+                        INITIALIZATION_VECTOR   CLOB         NOT NULL,
+                        TIMESTAMP_CREATION      TIMESTAMP(6) NOT NULL,
+                        TIMESTAMP_LAST_ACCESS   TIMESTAMP(6) NOT NULL,
+                        TIMESTAMP_PASSWORD      TIMESTAMP(6) NOT NULL,
+                        TIMESTAMP_EMAIL         TIMESTAMP(6) NOT NULL,
+                        HINT                    VARCHAR2(100) NOT NULL,
+                        PROPIC                  CLOB         NOT NULL,
+                        LANGUAGE                VARCHAR2(2) NOT NULL,
+                        STATE                   VARCHAR2(10) NOT NULL,
+                        VERIFICATION_CODE       VARCHAR2(36),
+                        ATTEMPT                 NUMBER,
+                        NEW_EMAIL               VARCHAR2(100),
+                        CONSTRAINT users_pk PRIMARY KEY (ID)
+                    )""");
+        }
+
+        connection.setAutoCommit(false);
+        var now = new Timestamp(System.currentTimeMillis());
+        try (var insert = connection.prepareStatement("INSERT INTO USERS (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (var id = 1; id <= rows; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, getEmail(id));
+                insert.setString(3, "$argon2id$v=19$m=65536,t=3,p=1$c2FsdA$aGFzaA");
+                insert.setString(4, "protectedSymmetricKey");
+                insert.setString(5, "initializationVector");
+                insert.setTimestamp(6, now);
+                insert.setTimestamp(7, now);
+                insert.setTimestamp(8, now);
+                insert.setTimestamp(9, now);
+                insert.setString(10, "hint");
+                insert.setString(11, "propic");
+                insert.setString(12, "EN");
+                insert.setString(13, id % 10 == 0 ? "UNVERIFIED" : "VERIFIED");
+                insert.setString(14, null);
+                insert.setObject(15, null);
+                insert.setString(16, null);
+                insert.addBatch();
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+
+        byEmailAndState = connection.prepareStatement(BY_EMAIL_AND_STATE);
+        byId = connection.prepareStatement(BY_ID);
+        printPlan(BY_EMAIL_AND_STATE.replaceFirst("\\?", "'" + getEmail(1) + "'").replaceFirst("\\?", "'VERIFIED'"));
+        printPlan(BY_ID.replace("?", "1"));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException, IOException {
+        connection.close();
+        try (var files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public boolean findByEmailAndState() throws SQLException {
+        byEmailAndState.setString(1, getEmail(nextId()));
+        byEmailAndState.setString(2, "VERIFIED");
+        try (var resultSet = byEmailAndState.executeQuery()) {
+            return resultSet.next();
+        }
+    }
+
+    @Benchmark
+    public boolean findByIdAndState() throws SQLException {
+        byId.setLong(1, nextId());
+        try (var resultSet = byId.executeQuery()) {
+            return resultSet.next() && "VERIFIED".equals(resultSet.getString("STATE"));
+        }
+    }
+
+    private int nextId() {
+        return ThreadLocalRandom.current().nextInt(1, rows + 1);
+    }
+
+    private void printPlan(String query) throws SQLException {
+        try (var statement = connection.createStatement(); var resultSet = statement.executeQuery("EXPLAIN ANALYZE " + query)) {
+            while (resultSet.next()) {
+                System.out.println(resultSet.getString(1));
+            }
+        }
+    }
+
+    private static String getEmail(int id) {
+        return "user" + id + "@test.com";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -49,19 +49,36 @@ class UserRepositoryTest extends AuthenticationServiceTests {
 
     @Test
     @Transactional
-    void findByEmailAndNewEmailAndState() {
+    void testFindByIdAndState() {
+        var user = signUp(EMAIL, PASSWORD);
+        user.setState(UserStateEnum.UNVERIFIED);
+        userRepository.persist(user);
+
+        assertFalse(userRepository.findByIdAndState(user.getId(), UserStateEnum.VERIFIED).isPresent());
+        assertFalse(userRepository.findByIdAndState(user.getId() + 1, UserStateEnum.UNVERIFIED).isPresent());
+
+        user.setState(UserStateEnum.VERIFIED);
+        userRepository.persist(user);
+
+        checkUser((userRepository) -> userRepository.findByIdAndState(user.getId(), UserStateEnum.VERIFIED), user);
+    }
+
+    @Test
+    @Transactional
+    void testFindByIdAndNewEmailAndState() {
         var newEmail = EMAIL + ".";
         var user = signUp(EMAIL, PASSWORD);
         user.setState(UserStateEnum.UNVERIFIED);
         user.setNewEmail(newEmail);
         userRepository.persist(user);
 
-        assertFalse(userRepository.findByEmailAndNewEmailAndState(EMAIL, newEmail, UserStateEnum.VERIFIED).isPresent());
+        assertFalse(userRepository.findByIdAndNewEmailAndState(user.getId(), newEmail, UserStateEnum.VERIFIED).isPresent());
 
         user.setState(UserStateEnum.VERIFIED);
         userRepository.persist(user);
 
-        checkUser((userRepository) -> userRepository.findByEmailAndNewEmailAndState(EMAIL, newEmail, UserStateEnum.VERIFIED), user);
+        assertFalse(userRepository.findByIdAndNewEmailAndState(user.getId(), EMAIL, UserStateEnum.VERIFIED).isPresent());
+        checkUser((userRepository) -> userRepository.findByIdAndNewEmailAndState(user.getId(), newEmail, UserStateEnum.VERIFIED), user);
     }
 
     @Test
@@ -84,7 +101,6 @@ class UserRepositoryTest extends AuthenticationServiceTests {
                 .ifPresentOrElse(u -> {
                     assertEquals(expectedUser.getId(), u.getId());
                     assertEquals(expectedUser.getEmail(), u.getEmail());
-                    assertEquals(expectedUser.getSalt(), u.getSalt());
                     assertEquals(expectedUser.getHash(), u.getHash());
                     assertEquals(expectedUser.getProtectedSymmetricKey(), u.getProtectedSymmetricKey());
                     assertEquals(expectedUser.getInitializationVector(), u.getInitializationVector());
@@ -0,0 +1,66 @@
+package com.ilmatty98.resource.authentication;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import static com.ilmatty98.constants.UrlConstants.BASE_PATH_AUTHENTICATION;
+import static com.ilmatty98.constants.UrlConstants.CHANGE_PASSWORD;
+
+/**
+ * Cost of rejecting an unauthenticated request carrying a 4 MB body, as seen by the client.
+ * Run the main method on the test classpath after mvn test-compile, against a running instance (-Dbenchmark.url)
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BearerAuthenticationBenchmark {
+
+    private static final int BODY_SIZE = 4 * 1024 * 1024;
+
+    private static final String LARGE_BODY = "{\"currentMasterPasswordHash\":\"" + "a".repeat(BODY_SIZE) +
+            "\",\"newMasterPasswordHash\":\"a\",\"newProtectedSymmetricKey\":\"a\",\"newInitializationVector\":\"a\"}";
+
+    private HttpClient httpClient;
+
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        var url = System.getProperty("benchmark.url", "http://localhost:8080");
+        httpClient = HttpClient.newHttpClient();
+        request = HttpRequest.newBuilder(URI.create(url + BASE_PATH_AUTHENTICATION + CHANGE_PASSWORD))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer invalid")
+                .PUT(HttpRequest.BodyPublishers.ofString(LARGE_BODY))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        httpClient.close();
+    }
+
+    @Benchmark
+    public int rejectedRequest() throws IOException, InterruptedException {
+        var status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 401)
+            throw new IllegalStateException("Unexpected status " + status);
+        return status;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BearerAuthenticationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,53 @@
+package com.ilmatty98.resource.authentication;
+
+import com.ilmatty98.AuthenticationServiceTests;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+
+@QuarkusTest
+class BearerAuthenticationTest extends AuthenticationServiceTests {
+
+    private static final int BODY_SIZE = 4 * 1024 * 1024;
+
+    private static final String LARGE_BODY = "{\"currentMasterPasswordHash\":\"" + "a".repeat(BODY_SIZE) +
+            "\",\"newMasterPasswordHash\":\"a\",\"newProtectedSymmetricKey\":\"a\",\"newInitializationVector\":\"a\"}";
+
+    @Test
+    void testLargeBodyWithoutToken() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(LARGE_BODY)
+                .when()
+                .put(CHANGE_PASSWORD_URL)
+                .then()
+                .statusCode(Response.Status.UNAUTHORIZED.getStatusCode());
+    }
+
+    @Test
+    void testLargeBodyInvalidToken() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(LARGE_BODY)
+                .header(AUTH_HEADER_NAME, AUTH_HEADER_PREFIX + "invalid")
+                .when()
+                .delete(DELETE_ACCOUNT_URL)
+                .then()
+                .statusCode(Response.Status.UNAUTHORIZED.getStatusCode());
+    }
+
+    @Test
+    void testInvalidBodyWithoutToken() {
+        // Authentication comes first, the body is never parsed
+        given()
+                .contentType(ContentType.JSON)
+                .body("{")
+                .when()
+                .put(CHANGE_PASSWORD_URL)
+                .then()
+                .statusCode(Response.Status.UNAUTHORIZED.getStatusCode());
+    }
+}
@@ -187,7 +187,6 @@ class ChangeEmailTest extends AuthenticationServiceTests {
         var u = getUserById(user.getId());
         assertEquals(user.getId(), u.getId());
         assertEquals(EMAIL, u.getEmail());
-        assertEquals(user.getSalt(), u.getSalt());
         assertEquals(user.getHash(), u.getHash());
         assertEquals(user.getProtectedSymmetricKey(), u.getProtectedSymmetricKey());
         assertEquals(user.getInitializationVector(), u.getInitializationVector());
@@ -110,7 +110,7 @@ class ChangePasswordTest extends AuthenticationServiceTests {
 
         var claims = new HashMap<String, Object>();
         claims.put(TokenClaimEnum.ROLE.getLabel(), user.getState());
-        var token = tokenJwtService.generateTokenJwt(claims);
+        var token = generateTokenJwt(claims);
 
         given()
                 .contentType(ContentType.JSON)
@@ -123,7 +123,7 @@ class ChangePasswordTest extends AuthenticationServiceTests {
     }
 
     @Test
-    void testEmailNotFound() {
+    void testWithClaimsWithoutId() {
         var user = signUp(EMAIL, PASSWORD);
         user = confirmEmail(EMAIL);
 
@@ -133,9 +133,31 @@ class ChangePasswordTest extends AuthenticationServiceTests {
         changePasswordDto.setNewInitializationVector("new initializationVector");
 
         var claims = new HashMap<String, Object>();
-        claims.put(TokenClaimEnum.EMAIL.getLabel(), EMAIL + ".");
+        claims.put(TokenClaimEnum.EMAIL.getLabel(), EMAIL);
         claims.put(TokenClaimEnum.ROLE.getLabel(), user.getState());
-        var token = tokenJwtService.generateTokenJwt(claims);
+        var token = generateTokenJwt(claims);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(changePasswordDto)
+                .header(AUTH_HEADER_NAME, AUTH_HEADER_PREFIX + token)
+                .when()
+                .put(CHANGE_PASSWORD_URL)
+                .then()
+                .statusCode(Response.Status.UNAUTHORIZED.getStatusCode());
+    }
+
+    @Test
+    void testIdNotFound() {
+        var user = signUp(EMAIL, PASSWORD);
+        user = confirmEmail(EMAIL);
+
+        var changePasswordDto = fillObject(new ChangePasswordDto());
+        changePasswordDto.setNewMasterPasswordHash("new password");
+        changePasswordDto.setNewProtectedSymmetricKey("new protectedSymmetricKey");
+        changePasswordDto.setNewInitializationVector("new initializationVector");
+
+        var token = tokenJwtService.generateTokenJwt(user.getId() + 1, EMAIL, user.getState().name(), 0);
 
         given()
                 .contentType(ContentType.JSON)
@@ -192,7 +214,7 @@ class ChangePasswordTest extends AuthenticationServiceTests {
         assertNotNull(u);
         assertNotNull(u.getId());
         assertEquals(user.getEmail(), u.getEmail());
-        assertNotNull(u.getSalt());
+        assertTrue(u.getHash().startsWith("$argon2id$"));
         assertNotNull(u.getHash());
         assertEquals(changePasswordDto.getNewProtectedSymmetricKey(), authenticationMapper.base64DecodingString(u.getProtectedSymmetricKey()));
         assertEquals(changePasswordDto.getNewInitializationVector(), authenticationMapper.base64DecodingString(u.getInitializationVector()));
@@ -222,4 +244,46 @@ class ChangePasswordTest extends AuthenticationServiceTests {
 
         assertNotNull(getTokenFromLogIn(EMAIL, "new password"));
     }
+
+    @Test
+    void testTokenRevoked() {
+        signUp(EMAIL, PASSWORD);
+        confirmEmail(EMAIL);
+        var token = getTokenFromLogIn(EMAIL, PASSWORD);
+
+        var changePasswordDto = new ChangePasswordDto();
+        changePasswordDto.setCurrentMasterPasswordHash(PASSWORD);
+        changePasswordDto.setNewMasterPasswordHash("new password");
+        changePasswordDto.setNewProtectedSymmetricKey("new protectedSymmetricKey");
+        changePasswordDto.setNewInitializationVector("new initializationVector");
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(changePasswordDto)
+                .header(AUTH_HEADER_NAME, AUTH_HEADER_PREFIX + token)
+                .when()
+                .put(CHANGE_PASSWORD_URL)
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode());
+
+        // The token was issued before the change
+        changePasswordDto.setCurrentMasterPasswordHash("new password");
+        given()
+                .contentType(ContentType.JSON)
+                .body(changePasswordDto)
+                .header(AUTH_HEADER_NAME, AUTH_HEADER_PREFIX + token)
+                .when()
+                .put(CHANGE_PASSWORD_URL)
+                .then()
+                .statusCode(Response.Status.UNAUTHORIZED.getStatusCode());
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(changePasswordDto)
+                .header(AUTH_HEADER_NAME, AUTH_HEADER_PREFIX + getTokenFromLogIn(EMAIL, "new password"))
+                .when()
+                .put(CHANGE_PASSWORD_URL)
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode());
+    }
 }
@@ -371,7 +371,6 @@ class ConfirmChangeEmailTest extends AuthenticationServiceTests {
                 .statusCode(Response.Status.OK.getStatusCode());
 
         var u = getUserById(user.getId());
-        user.setSalt(u.getSalt());
         user.setHash(u.getHash());
         user.setProtectedSymmetricKey(authenticationMapper.base64EncodingString("new protectedSymmetricKey"));
         user.setInitializationVector(authenticationMapper.base64EncodingString("new initializationVector"));
@@ -395,7 +394,6 @@ class ConfirmChangeEmailTest extends AuthenticationServiceTests {
         var u = getUserById(user.getId());
         assertEquals(user.getId(), u.getId());
         assertEquals(email, u.getEmail());
-        assertEquals(user.getSalt(), u.getSalt());
         assertEquals(user.getHash(), u.getHash());
         assertEquals(user.getProtectedSymmetricKey(), u.getProtectedSymmetricKey());
         assertEquals(user.getInitializationVector(), u.getInitializationVector());
@@ -65,7 +65,6 @@ class ConfirmEmailTest extends AuthenticationServiceTests {
         var u = getUserById(user.getId());
         assertEquals(user.getId(), u.getId());
         assertEquals(user.getEmail(), u.getEmail());
-        assertEquals(user.getSalt(), u.getSalt());
         assertEquals(user.getHash(), u.getHash());
         assertEquals(user.getProtectedSymmetricKey(), u.getProtectedSymmetricKey());
         assertEquals(user.getInitializationVector(), u.getInitializationVector());
@@ -2,9 +2,14 @@ package com.ilmatty98.resource.authentication;
 
 
 import com.ilmatty98.AuthenticationServiceTests;
+import com.ilmatty98.crypto.Argon2idHash;
+import com.ilmatty98.crypto.Argon2idParameters;
 import com.ilmatty98.dto.request.LogInDto;
+import com.ilmatty98.service.HashingService;
+import com.ilmatty98.utils.AuthenticationUtils;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
 import jakarta.mail.MessagingException;
 import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.Test;
@@ -14,12 +19,14 @@ import java.time.OffsetDateTime;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 @QuarkusTest
 class LogInTest extends AuthenticationServiceTests {
 
+    @Inject
+    HashingService hashingService;
+
     @Test
     void testLogInDtoEmpty() {
         given()
@@ -206,6 +213,7 @@ class LogInTest extends AuthenticationServiceTests {
         response.then()
                 .statusCode(Response.Status.OK.getStatusCode())
                 .body("token", not(emptyOrNullString()))
+                .body("refreshToken", not(emptyOrNullString()))
                 .body("tokenPublicKey", equalTo(tokenJwtService.getPublicKey()))
                 .body("protectedSymmetricKey", equalTo(authenticationMapper.base64DecodingString(user.getProtectedSymmetricKey())))
                 .body("initializationVector", equalTo(authenticationMapper.base64DecodingString(user.getInitializationVector())))
@@ -234,4 +242,33 @@ class LogInTest extends AuthenticationServiceTests {
         assertEquals("New access on Credential Manager!", email.getSubject());
     }
 
+    @Test
+    void testLogInRehash() {
+        var user = signUp(EMAIL, PASSWORD);
+        confirmEmail(EMAIL);
+
+        // Hash stored with an older, cheaper policy
+        var parameters = new Argon2idParameters(1, 1024, 1, 32);
+        var salt = AuthenticationUtils.generateSalt(16);
+        var hash = AuthenticationUtils.generateArgon2id(PASSWORD, salt, parameters.size(), parameters.iterations(),
+                parameters.memoryKB(), parameters.parallelism());
+        var legacyHash = new Argon2idHash(parameters, salt, hash).encode();
+
+        user = getUserById(user.getId());
+        user.setHash(legacyHash);
+        deleteUserById(user.getId());
+        saveUser(user);
+        user.setId(user.getId() + 1);
+        assertEquals(legacyHash, getUserById(user.getId()).getHash());
+        assertTrue(hashingService.needsRehash(legacyHash));
+
+        logIn(EMAIL, PASSWORD);
+
+        var rehashed = getUserById(user.getId()).getHash();
+        assertNotEquals(legacyHash, rehashed);
+        assertFalse(hashingService.needsRehash(rehashed));
+        assertTrue(hashingService.verify(PASSWORD, rehashed));
+        logIn(EMAIL, PASSWORD);
+    }
+
 }
@@ -0,0 +1,126 @@
+package com.ilmatty98.resource.authentication;
+
+import com.ilmatty98.AuthenticationServiceTests;
+import com.ilmatty98.constants.TokenClaimEnum;
+import com.ilmatty98.dto.request.ChangePasswordDto;
+import com.ilmatty98.dto.request.RefreshDto;
+import com.ilmatty98.dto.response.AccessDto;
+import com.ilmatty98.repository.RefreshTokenRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.ExtractableResponse;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class RefreshTest extends AuthenticationServiceTests {
+
+    @Inject
+    RefreshTokenRepository refreshTokenRepository;
+
+    @Test
+    void testRefreshDtoEmpty() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(new RefreshDto())
+                .when()
+                .post(REFRESH_URL)
+                .then()
+                .statusCode(Response.Status.BAD_REQUEST.getStatusCode());
+    }
+
+    @Test
+    void testRefreshTokenNotFound() {
+        refresh(generateRandomString(43), Response.Status.UNAUTHORIZED);
+    }
+
+    @Test
+    void testRefresh() {
+        signUp(EMAIL, PASSWORD);
+        var user = confirmEmail(EMAIL);
+        var accessDto = logIn(EMAIL, PASSWORD);
+        assertNotNull(accessDto.getRefreshToken());
+
+        var refreshed = refresh(accessDto.getRefreshToken(), Response.Status.OK).as(AccessDto.class);
+
+        assertNotNull(refreshed.getToken());
+        assertNotNull(refreshed.getRefreshToken());
+        assertNotEquals(accessDto.getRefreshToken(), refreshed.getRefreshToken());
+        assertEquals(accessDto.getProtectedSymmetricKey(), refreshed.getProtectedSymmetricKey());
+        assertEquals(accessDto.getInitializationVector(), refreshed.getInitializationVector());
+
+        var claims = tokenJwtService.validateTokenJwt(refreshed.getToken());
+        assertEquals(user.getEmail(), claims.get(TokenClaimEnum.EMAIL.getLabel()));
+    }
+
+    @Test
+    void testRefreshTokenReused() {
+        signUp(EMAIL, PASSWORD);
+        confirmEmail(EMAIL);
+        var accessDto = logIn(EMAIL, PASSWORD);
+
+        var refreshed = refresh(accessDto.getRefreshToken(), Response.Status.OK).as(AccessDto.class);
+
+        // The first token has already been used: the whole family is revoked, the latest token included
+        refresh(accessDto.getRefreshToken(), Response.Status.UNAUTHORIZED);
+        refresh(refreshed.getRefreshToken(), Response.Status.UNAUTHORIZED);
+    }
+
+    @Test
+    void testRefreshTokenExpired() {
+        signUp(EMAIL, PASSWORD);
+        confirmEmail(EMAIL);
+        var accessDto = logIn(EMAIL, PASSWORD);
+
+        QuarkusTransaction.requiringNew().run(() -> refreshTokenRepository.update("timestampExpiration = ?1",
+                Timestamp.from(Instant.now().minusSeconds(1))));
+
+        refresh(accessDto.getRefreshToken(), Response.Status.UNAUTHORIZED);
+    }
+
+    @Test
+    void testRefreshTokenRevokedByChangePassword() {
+        signUp(EMAIL, PASSWORD);
+        confirmEmail(EMAIL);
+        var accessDto = logIn(EMAIL, PASSWORD);
+
+        var changePasswordDto = new ChangePasswordDto();
+        changePasswordDto.setCurrentMasterPasswordHash(PASSWORD);
+        changePasswordDto.setNewMasterPasswordHash("new password");
+        changePasswordDto.setNewProtectedSymmetricKey("new protectedSymmetricKey");
+        changePasswordDto.setNewInitializationVector("new initializationVector");
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(changePasswordDto)
+                .header(AUTH_HEADER_NAME, AUTH_HEADER_PREFIX + accessDto.getToken())
+                .when()
+                .put(CHANGE_PASSWORD_URL)
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode());
+
+        refresh(accessDto.getRefreshToken(), Response.Status.UNAUTHORIZED);
+    }
+
+    private ExtractableResponse<io.restassured.response.Response> refresh(String refreshToken, Response.Status status) {
+        var refreshDto = new RefreshDto();
+        refreshDto.setRefreshToken(refreshToken);
+
+        return given()
+                .contentType(ContentType.JSON)
+                .body(refreshDto)
+                .when()
+                .post(REFRESH_URL)
+                .then()
+                .statusCode(status.getStatusCode())
+                .extract();
+    }
+}
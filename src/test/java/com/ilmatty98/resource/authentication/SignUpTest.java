@@ -247,7 +247,7 @@ class SignUpTest extends AuthenticationServiceTests {
                 .ifPresentOrElse(user -> {
                     assertNotNull(user.getId());
                     assertEquals(signUp.getEmail(), user.getEmail());
-                    assertNotNull(user.getSalt());
+                    assertTrue(user.getHash().startsWith("$argon2id$"));
                     assertNotNull(user.getHash());
                     assertEquals(signUp.getProtectedSymmetricKey(), authenticationMapper.base64DecodingString(user.getProtectedSymmetricKey()));
                     assertEquals(signUp.getInitializationVector(), authenticationMapper.base64DecodingString(user.getInitializationVector()));
@@ -0,0 +1,151 @@
+package com.ilmatty98.resource.introspection;
+
+import com.ilmatty98.AuthenticationServiceTests;
+import com.ilmatty98.dto.request.IntrospectionDto;
+import com.ilmatty98.dto.response.TokenIntrospectionDto;
+import com.ilmatty98.grpc.IntrospectRequest;
+import com.ilmatty98.grpc.TokenIntrospection;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.quarkus.grpc.GrpcClient;
+import io.quarkus.grpc.GrpcClientUtils;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.stream.LongStream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@QuarkusTest
+class IntrospectionGrpcTest extends AuthenticationServiceTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final int CALLS = 200;
+
+    @GrpcClient("introspection")
+    TokenIntrospection client;
+
+    private TokenIntrospection authenticatedClient;
+
+    @BeforeEach
+    void authenticateClient() {
+        authenticatedClient = withAuthorization("Bearer " + introspectionClientSecret);
+    }
+
+    @Test
+    void testWithoutClientSecret() {
+        var request = IntrospectRequest.newBuilder().addTokens(tokenJwtService.generateTokenJwt(2_000_001L, EMAIL, "VERIFIED", 0)).build();
+
+        var e = assertThrows(StatusRuntimeException.class, () -> client.introspect(request).await().atMost(TIMEOUT));
+        assertEquals(Status.Code.UNAUTHENTICATED, e.getStatus().getCode());
+    }
+
+    @Test
+    void testWithWrongClientSecret() {
+        var request = IntrospectRequest.newBuilder().addTokens(tokenJwtService.generateTokenJwt(2_000_001L, EMAIL, "VERIFIED", 0)).build();
+        var wrongClient = withAuthorization("Bearer " + introspectionClientSecret + "x");
+
+        var e = assertThrows(StatusRuntimeException.class, () -> wrongClient.introspect(request).await().atMost(TIMEOUT));
+        assertEquals(Status.Code.UNAUTHENTICATED, e.getStatus().getCode());
+    }
+
+    @Test
+    void testIntrospect() {
+        var token = tokenJwtService.generateTokenJwt(2_000_001L, EMAIL, "VERIFIED", 0);
+        var request = IntrospectRequest.newBuilder().addTokens(token).addTokens("invalid").build();
+
+        var results = authenticatedClient.introspect(request).await().atMost(TIMEOUT).getResultsList();
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).getActive());
+        assertEquals(2_000_001L, results.get(0).getId());
+        assertEquals(EMAIL, results.get(0).getEmail());
+        assertEquals("", results.get(0).getError());
+        assertFalse(results.get(1).getActive());
+        assertEquals("Invalid token", results.get(1).getError());
+    }
+
+    @Test
+    void testTooManyTokens() {
+        var request = IntrospectRequest.newBuilder().addAllTokens(Collections.nCopies(BATCH_SIZE + 1, "token")).build();
+
+        var e = assertThrows(StatusRuntimeException.class, () -> authenticatedClient.introspect(request).await().atMost(TIMEOUT));
+        assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+    }
+
+    /**
+     * Tokens per second through the local gRPC client and through the JSON endpoint, with the same batches
+     **/
+    @Test
+    void testThroughput() {
+        var tokens = new ArrayList<String>();
+        LongStream.rangeClosed(1, BATCH_SIZE)
+                .forEach(id -> tokens.add(tokenJwtService.generateTokenJwt(3_000_000L + id, EMAIL, "VERIFIED", 0)));
+        var request = IntrospectRequest.newBuilder().addAllTokens(tokens).build();
+        var introspectionDto = new IntrospectionDto();
+        introspectionDto.setTokens(tokens);
+
+        // Warm-up, the tokens are verified once and then served by the cache
+        for (var i = 0; i < CALLS / 10; i++) {
+            authenticatedClient.introspect(request).await().atMost(TIMEOUT);
+            introspectJson(introspectionDto);
+        }
+
+        var start = System.nanoTime();
+        for (var i = 0; i < CALLS; i++) {
+            var response = authenticatedClient.introspect(request).await().atMost(TIMEOUT);
+            assertEquals(BATCH_SIZE, response.getResultsCount());
+            assertTrue(response.getResults(BATCH_SIZE - 1).getActive());
+        }
+        var grpcTokensPerSecond = getTokensPerSecond(start);
+
+        start = System.nanoTime();
+        for (var i = 0; i < CALLS; i++) {
+            var results = introspectJson(introspectionDto);
+            assertEquals(BATCH_SIZE, results.length);
+            assertTrue(results[BATCH_SIZE - 1].isActive());
+        }
+        var jsonTokensPerSecond = getTokensPerSecond(start);
+
+        log.info("Introspection of {} batches of {} tokens: gRPC {} tokens/s, JSON {} tokens/s",
+                CALLS, BATCH_SIZE, grpcTokensPerSecond, jsonTokensPerSecond);
+        assertTrue(grpcTokensPerSecond > 0 && jsonTokensPerSecond > 0);
+    }
+
+    private TokenIntrospectionDto[] introspectJson(IntrospectionDto introspectionDto) {
+        return given()
+                .contentType(ContentType.JSON)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + introspectionClientSecret)
+                .body(introspectionDto)
+                .when()
+                .post(INTROSPECT_URL)
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract()
+                .as(TokenIntrospectionDto[].class);
+    }
+
+    private TokenIntrospection withAuthorization(String authorization) {
+        var headers = new Metadata();
+        headers.put(Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER), authorization);
+        return GrpcClientUtils.attachHeaders(client, headers);
+    }
+
+    private static long getTokensPerSecond(long start) {
+        return CALLS * BATCH_SIZE * 1_000_000_000L / (System.nanoTime() - start);
+    }
+}
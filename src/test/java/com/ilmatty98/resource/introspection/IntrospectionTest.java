@@ -0,0 +1,120 @@
+package com.ilmatty98.resource.introspection;
+
+import com.ilmatty98.AuthenticationServiceTests;
+import com.ilmatty98.dto.request.IntrospectionDto;
+import com.ilmatty98.dto.response.TokenIntrospectionDto;
+import com.ilmatty98.service.TokenRevocationService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class IntrospectionTest extends AuthenticationServiceTests {
+
+    @Inject
+    TokenRevocationService tokenRevocationService;
+
+    @Test
+    void testWithoutClientSecret() {
+        var introspectionDto = new IntrospectionDto();
+        introspectionDto.setTokens(List.of(tokenJwtService.generateTokenJwt(1_000_001L, EMAIL, "VERIFIED", 0)));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(introspectionDto)
+                .when()
+                .post(INTROSPECT_URL)
+                .then()
+                .statusCode(Response.Status.UNAUTHORIZED.getStatusCode());
+    }
+
+    @Test
+    void testWithWrongClientSecret() {
+        var introspectionDto = new IntrospectionDto();
+        introspectionDto.setTokens(List.of(tokenJwtService.generateTokenJwt(1_000_001L, EMAIL, "VERIFIED", 0)));
+
+        given()
+                .contentType(ContentType.JSON)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + introspectionClientSecret + "x")
+                .body(introspectionDto)
+                .when()
+                .post(INTROSPECT_URL)
+                .then()
+                .statusCode(Response.Status.UNAUTHORIZED.getStatusCode());
+    }
+
+    @Test
+    void testIntrospectionDtoEmpty() {
+        given()
+                .contentType(ContentType.JSON)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + introspectionClientSecret)
+                .body(new IntrospectionDto())
+                .when()
+                .post(INTROSPECT_URL)
+                .then()
+                .statusCode(Response.Status.BAD_REQUEST.getStatusCode());
+    }
+
+    @Test
+    void testTooManyTokens() {
+        var introspectionDto = new IntrospectionDto();
+        introspectionDto.setTokens(Collections.nCopies(101, "token"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + introspectionClientSecret)
+                .body(introspectionDto)
+                .when()
+                .post(INTROSPECT_URL)
+                .then()
+                .statusCode(Response.Status.BAD_REQUEST.getStatusCode());
+    }
+
+    @Test
+    void testIntrospect() {
+        var token = tokenJwtService.generateTokenJwt(1_000_001L, EMAIL, "VERIFIED", 0);
+        var revokedToken = tokenJwtService.generateTokenJwt(1_000_002L, EMAIL, "VERIFIED", 0);
+        QuarkusTransaction.requiringNew().run(() -> tokenRevocationService.revoke(1_000_002L));
+
+        var introspectionDto = new IntrospectionDto();
+        introspectionDto.setTokens(List.of(token, "invalid", revokedToken, ""));
+
+        var results = given()
+                .contentType(ContentType.JSON)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + introspectionClientSecret)
+                .body(introspectionDto)
+                .when()
+                .post(INTROSPECT_URL)
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract()
+                .as(TokenIntrospectionDto[].class);
+
+        assertEquals(4, results.length);
+        assertTrue(results[0].isActive());
+        assertEquals(1_000_001L, results[0].getId());
+        assertEquals(EMAIL, results[0].getEmail());
+        assertEquals("VERIFIED", results[0].getRole());
+        assertEquals(0, results[0].getEpoch());
+        assertEquals(600, results[0].getExpiration() - results[0].getIssuedAt());
+        assertNull(results[0].getError());
+
+        assertFalse(results[1].isActive());
+        assertEquals("Invalid token", results[1].getError());
+        assertFalse(results[2].isActive());
+        assertEquals("Token revoked", results[2].getError());
+        assertNull(results[2].getEmail());
+        assertFalse(results[3].isActive());
+        assertEquals("Invalid token", results[3].getError());
+    }
+}
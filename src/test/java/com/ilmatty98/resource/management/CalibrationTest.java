@@ -0,0 +1,91 @@
+package com.ilmatty98.resource.management;
+
+import com.ilmatty98.AuthenticationServiceTests;
+import com.ilmatty98.dto.response.CalibrationDto;
+import com.ilmatty98.service.HashingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class CalibrationTest extends AuthenticationServiceTests {
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    HashingService hashingService;
+
+    @ConfigProperty(name = "encryption.argon2id.calibration.min-memory-kb")
+    int minMemoryKB;
+
+    @ConfigProperty(name = "encryption.argon2id.calibration.max-memory-kb")
+    int maxMemoryKB;
+
+    @ConfigProperty(name = "encryption.argon2id.calibration.max-iterations")
+    int maxIterations;
+
+    @Test
+    void testCalibrate() {
+        var calibration = given()
+                .contentType(ContentType.JSON)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + managementClientSecret)
+                .when()
+                .post(CALIBRATION_URL)
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract()
+                .as(CalibrationDto.class);
+
+        assertEquals(hashingService.getEngine().name(), calibration.getEngine());
+        assertTrue(calibration.getMemoryKB() >= minMemoryKB && calibration.getMemoryKB() <= maxMemoryKB);
+        assertTrue(calibration.getIterations() >= 1 && calibration.getIterations() <= maxIterations);
+        assertTrue(calibration.getParallelism() >= 1);
+        assertTrue(calibration.getLatencyMs() > 0);
+        assertTrue(calibration.getLoginsPerSecond() > 0);
+        assertTrue(calibration.getMaxConcurrentHashes() >= 1);
+        assertNotNull(calibration.getTimestamp());
+
+        var last = given()
+                .contentType(ContentType.JSON)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + managementClientSecret)
+                .when()
+                .get(CALIBRATION_URL)
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract()
+                .as(CalibrationDto.class);
+
+        assertEquals(calibration.getMemoryKB(), last.getMemoryKB());
+        assertEquals(calibration.getIterations(), last.getIterations());
+        assertEquals(calibration.getLoginsPerSecond(), last.getLoginsPerSecond());
+        assertEquals(calibration.getLoginsPerSecond(),
+                meterRegistry.find("argon2id.calibration.logins.per.second").gauge().value());
+    }
+
+    @Test
+    void testWithoutClientSecret() {
+        given()
+                .contentType(ContentType.JSON)
+                .when()
+                .post(CALIBRATION_URL)
+                .then()
+                .statusCode(Response.Status.UNAUTHORIZED.getStatusCode());
+
+        given()
+                .contentType(ContentType.JSON)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + introspectionClientSecret)
+                .when()
+                .get(CALIBRATION_URL)
+                .then()
+                .statusCode(Response.Status.UNAUTHORIZED.getStatusCode());
+    }
+}
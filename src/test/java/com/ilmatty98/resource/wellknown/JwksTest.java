@@ -0,0 +1,65 @@
+package com.ilmatty98.resource.wellknown;
+
+import com.ilmatty98.AuthenticationServiceTests;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+
+import java.security.PublicKey;
+import java.time.Duration;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class JwksTest extends AuthenticationServiceTests {
+
+    @ConfigProperty(name = "token.jwks.max-age")
+    Duration jwksMaxAge;
+
+    @Test
+    void testGetJwks() {
+        var response = given()
+                .when()
+                .get(JWKS_URL)
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract();
+
+        var cacheControl = response.header(HttpHeaders.CACHE_CONTROL);
+        assertNotNull(response.header(HttpHeaders.ETAG));
+        var maxAge = cacheControl.replaceAll(".*max-age=(\\d+).*", "$1");
+        assertTrue(Long.parseLong(maxAge) <= jwksMaxAge.toSeconds());
+
+        // Tokens are verified with the published key, found by its kid
+        var token = tokenJwtService.generateTokenJwt(1L, EMAIL, "VERIFIED", 0);
+        var jwk = (PublicJwk<?>) Jwks.setParser().build().parse(response.body().asString()).getKeys().iterator().next();
+        var jws = Jwts.parser().verifyWith((PublicKey) jwk.toKey()).build().parseSignedClaims(token);
+        assertEquals(jwk.getId(), jws.getHeader().getKeyId());
+        assertEquals("sig", jwk.getPublicKeyUse());
+    }
+
+    @Test
+    void testGetJwksNotModified() {
+        var etag = given()
+                .when()
+                .get(JWKS_URL)
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract()
+                .header(HttpHeaders.ETAG);
+
+        given()
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .when()
+                .get(JWKS_URL)
+                .then()
+                .statusCode(Response.Status.NOT_MODIFIED.getStatusCode())
+                .header(HttpHeaders.ETAG, etag);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ilmatty98.service;
+
+import com.ilmatty98.AuthenticationServiceTests;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class CredentialCacheServiceTest extends AuthenticationServiceTests {
+
+    @Inject
+    CredentialCacheService credentialCacheService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Test
+    void testVerify() {
+        var user = signUp(EMAIL, PASSWORD);
+
+        var hits = meterRegistry.counter("credential-cache.requests", "result", "hit");
+        var misses = meterRegistry.counter("credential-cache.requests", "result", "miss");
+        var cpuSaved = meterRegistry.counter("credential-cache.cpu.saved");
+        var hitsBefore = hits.count();
+        var missesBefore = misses.count();
+
+        assertTrue(credentialCacheService.verify(user, PASSWORD));
+        assertEquals(missesBefore + 1, misses.count());
+
+        assertTrue(credentialCacheService.verify(user, PASSWORD));
+        assertEquals(hitsBefore + 1, hits.count());
+        assertTrue(cpuSaved.count() > 0);
+
+        // Failed verifications are never cached
+        assertFalse(credentialCacheService.verify(user, PASSWORD + "."));
+        assertFalse(credentialCacheService.verify(user, PASSWORD + "."));
+        assertEquals(hitsBefore + 1, hits.count());
+    }
+
+    @Test
+    void testInvalidation() {
+        var user = signUp(EMAIL, PASSWORD);
+        var hits = meterRegistry.counter("credential-cache.requests", "result", "hit");
+
+        assertTrue(credentialCacheService.verify(user, PASSWORD));
+        var hitsBefore = hits.count();
+
+        credentialCacheService.invalidate(user.getId());
+        assertTrue(credentialCacheService.verify(user, PASSWORD));
+        assertEquals(hitsBefore, hits.count());
+
+        // A new timestampPassword means the password has changed
+        user.setTimestampPassword(new Timestamp(user.getTimestampPassword().getTime() + 1000));
+        assertTrue(credentialCacheService.verify(user, PASSWORD));
+        assertEquals(hitsBefore, hits.count());
+
+        assertTrue(credentialCacheService.verify(user, PASSWORD));
+        assertEquals(hitsBefore + 1, hits.count());
+    }
+}
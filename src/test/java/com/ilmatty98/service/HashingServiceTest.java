@@ -0,0 +1,173 @@
+package com.ilmatty98.service;
+
+import com.ilmatty98.AuthenticationServiceTests;
+import com.ilmatty98.constants.HashingEngineEnum;
+import com.ilmatty98.crypto.Argon2idParameters;
+import com.ilmatty98.utils.AuthenticationUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ServiceUnavailableException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class HashingServiceTest extends AuthenticationServiceTests {
+
+    @Inject
+    HashingService hashingService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "encryption.argon2id.size")
+    int argon2idSize;
+
+    @ConfigProperty(name = "encryption.argon2id.iterations")
+    int argon2idIterations;
+
+    @ConfigProperty(name = "encryption.argon2id.memoryKB")
+    int argon2idMemoryKB;
+
+    @ConfigProperty(name = "encryption.argon2id.parallelism")
+    int argon2idParallelism;
+
+    @Test
+    void testGenerateArgon2id() {
+        var salt = AuthenticationUtils.generateSalt(128);
+        var expected = AuthenticationUtils.generateArgon2id(PASSWORD, salt, argon2idSize, argon2idIterations,
+                argon2idMemoryKB, argon2idParallelism);
+
+        assertArrayEquals(expected, hashingService.generateArgon2id(PASSWORD, salt));
+    }
+
+    @Test
+    void testEncodeAndVerify() {
+        var encoded = hashingService.encode(PASSWORD, AuthenticationUtils.generateSalt(128));
+
+        assertTrue(encoded.startsWith(String.format("$argon2id$v=19$m=%d,t=%d,p=%d$", argon2idMemoryKB,
+                argon2idIterations, argon2idParallelism)));
+        assertTrue(hashingService.verify(PASSWORD, encoded));
+        assertFalse(hashingService.verify(PASSWORD + ".", encoded));
+        assertFalse(hashingService.needsRehash(encoded));
+    }
+
+    @Test
+    void testSingleFlight() throws Exception {
+        var encoded = hashingService.encode(PASSWORD, AuthenticationUtils.generateSalt(128));
+        var coalesced = meterRegistry.counter("argon2id.single-flight.coalesced");
+        var before = coalesced.count();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var start = new CountDownLatch(1);
+            var valid = IntStream.range(0, 4)
+                    .mapToObj(i -> executor.submit(() -> {
+                        start.await();
+                        return hashingService.verify(PASSWORD, encoded);
+                    }))
+                    .toList();
+            var invalid = executor.submit(() -> {
+                start.await();
+                return hashingService.verify(PASSWORD + ".", encoded);
+            });
+            start.countDown();
+
+            for (var future : valid) {
+                assertTrue(future.get());
+            }
+            assertFalse(invalid.get());
+        }
+
+        assertTrue(coalesced.count() > before);
+    }
+
+    @Test
+    void testMaxConcurrentHashes() {
+        assertTrue(hashingService.getMaxConcurrentHashes() >= 1);
+    }
+
+    @Test
+    void testNativeEngineFallback() {
+        var service = newHashingService(new SimpleMeterRegistry(), HashingEngineEnum.NATIVE);
+
+        // The engine in use is reported, not the configured one
+        try {
+            assertEquals(HashingEngineEnum.JAVA, service.getEngine());
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void testInterruptedCallerKeepsSlotsUntilHashEnds() throws InterruptedException {
+        var registry = new SimpleMeterRegistry();
+        var service = newHashingService(registry, HashingEngineEnum.JAVA);
+        try {
+            var slots = registry.find("argon2id.admission.slots").gauge();
+            var max = service.getMaxConcurrentHashes();
+            var parameters = new Argon2idParameters(argon2idIterations * 20, argon2idMemoryKB, argon2idParallelism, argon2idSize);
+            var failure = new AtomicReference<Throwable>();
+            var caller = Thread.ofPlatform().start(() -> {
+                try {
+                    service.generateArgon2id(PASSWORD, AuthenticationUtils.generateSalt(128), parameters);
+                } catch (RuntimeException e) {
+                    failure.set(e);
+                }
+            });
+
+            while (slots.value() == max) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            caller.interrupt();
+            caller.join();
+            assertInstanceOf(ServiceUnavailableException.class, failure.get());
+
+            // The hash still running holds its slot, it is released when the hash ends
+            assertEquals(max - 1, slots.value());
+            var deadline = System.currentTimeMillis() + 30_000;
+            while (slots.value() < max && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(max, slots.value());
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void testMetrics() {
+        hashingService.generateArgon2id(PASSWORD, AuthenticationUtils.generateSalt(128));
+
+        assertNotNull(meterRegistry.find("argon2id.admission.slots").gauge());
+        assertNotNull(meterRegistry.find("argon2id.admission.queue.depth").gauge());
+        assertNotNull(meterRegistry.find("argon2id.admission.wait").timer());
+        assertEquals(2, meterRegistry.find("argon2id.admission.rejected").counters().size());
+    }
+
+    private HashingService newHashingService(SimpleMeterRegistry registry, HashingEngineEnum engine) {
+        var service = new HashingService(registry);
+        service.argon2idSize = argon2idSize;
+        service.argon2idIterations = argon2idIterations;
+        service.argon2idMemoryKB = argon2idMemoryKB;
+        service.argon2idParallelism = argon2idParallelism;
+        service.engine = engine;
+        service.nativeLibrary = "argon2-missing";
+        service.executorThreads = Optional.of(1);
+        service.reservedMemoryMB = 0;
+        service.queueSize = 1;
+        service.timeoutMs = 1000;
+        service.retryAfterSeconds = 1;
+        service.init();
+        return service;
+    }
+}
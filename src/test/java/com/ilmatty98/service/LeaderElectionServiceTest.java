@@ -0,0 +1,98 @@
+package com.ilmatty98.service;
+
+import com.ilmatty98.AuthenticationServiceTests;
+import com.ilmatty98.repository.LeaseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class LeaderElectionServiceTest extends AuthenticationServiceTests {
+
+    @Inject
+    LeaderElectionService leaderElectionService;
+
+    @Inject
+    LeaseRepository leaseRepository;
+
+    @Inject
+    RandomService randomService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Test
+    void testSingleInstanceIsLeader() throws InterruptedException {
+        var deadline = System.currentTimeMillis() + 10_000;
+        while (!leaderElectionService.isLeader() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        assertTrue(leaderElectionService.isLeader());
+        assertEquals(1, meterRegistry.find("leader-election.leader").gauge().value());
+        assertTrue(meterRegistry.find("leader-election.lease.age").gauge().value() >= 0);
+    }
+
+    @Test
+    void testOnlyOneLeader() {
+        var leaseName = "test-" + generateRandomString(10);
+        var instance1 = newLeaderElectionService(leaseName, Duration.ofSeconds(30));
+        var instance2 = newLeaderElectionService(leaseName, Duration.ofSeconds(30));
+
+        instance1.heartbeat();
+        instance2.heartbeat();
+        assertTrue(instance1.isLeader());
+        assertFalse(instance2.isLeader());
+        assertEquals(1L, leaseRepository.findByName(leaseName).orElseThrow().getFencingToken());
+        assertEquals(instance1.getInstanceId(), leaseRepository.findByName(leaseName).orElseThrow().getOwner());
+
+        // The leader keeps the lease while it renews it
+        instance1.heartbeat();
+        instance2.heartbeat();
+        assertTrue(instance1.isLeader());
+        assertFalse(instance2.isLeader());
+
+        // A released lease is taken over on the next heartbeat, with a new fencing token
+        instance1.onStop(new ShutdownEvent());
+        instance2.heartbeat();
+        assertFalse(instance1.isLeader());
+        assertTrue(instance2.isLeader());
+        assertEquals(2L, leaseRepository.findByName(leaseName).orElseThrow().getFencingToken());
+        assertEquals(instance2.getInstanceId(), leaseRepository.findByName(leaseName).orElseThrow().getOwner());
+    }
+
+    @Test
+    void testFailover() throws InterruptedException {
+        var leaseName = "test-" + generateRandomString(10);
+        var instance1 = newLeaderElectionService(leaseName, Duration.ofMillis(500));
+        var instance2 = newLeaderElectionService(leaseName, Duration.ofMillis(500));
+
+        instance1.heartbeat();
+        assertTrue(instance1.isLeader());
+
+        // The leader stops renewing: its leadership lapses and the lease is taken over once expired
+        Thread.sleep(600);
+        assertFalse(instance1.isLeader());
+        instance2.heartbeat();
+        assertTrue(instance2.isLeader());
+
+        // The previous leader can no longer renew with its old fencing token
+        instance1.heartbeat();
+        assertFalse(instance1.isLeader());
+        assertTrue(instance2.isLeader());
+    }
+
+    private LeaderElectionService newLeaderElectionService(String leaseName, Duration leaseDuration) {
+        var service = new LeaderElectionService(leaseRepository, randomService, meterRegistry);
+        service.leaseName = leaseName;
+        service.leaseDuration = leaseDuration;
+        service.init();
+        return service;
+    }
+}
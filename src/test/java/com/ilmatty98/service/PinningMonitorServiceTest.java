@@ -0,0 +1,42 @@
+package com.ilmatty98.service;
+
+import com.ilmatty98.AuthenticationServiceTests;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class PinningMonitorServiceTest extends AuthenticationServiceTests {
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private final Object monitor = new Object();
+
+    @Test
+    void testPinningDetected() throws InterruptedException {
+        var counter = meterRegistry.counter("virtual-threads.pinned");
+        var before = counter.count();
+
+        // Sleeping inside a synchronized block pins the carrier thread
+        Thread.ofVirtual().start(() -> {
+            synchronized (monitor) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        var deadline = System.currentTimeMillis() + 10_000;
+        while (counter.count() == before && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        assertTrue(counter.count() > before);
+    }
+}
@@ -0,0 +1,68 @@
+package com.ilmatty98.service;
+
+import com.ilmatty98.AuthenticationServiceTests;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class RandomServiceTest extends AuthenticationServiceTests {
+
+    @Inject
+    RandomService randomService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "random.buffer-size")
+    int bufferSize;
+
+    @Test
+    void testNextBytes() {
+        assertEquals(128, randomService.nextBytes(128).length);
+        assertEquals(bufferSize * 2, randomService.nextBytes(bufferSize * 2).length);
+        assertFalse(Arrays.equals(randomService.nextBytes(16), randomService.nextBytes(16)));
+    }
+
+    @Test
+    void testNextUUID() {
+        var uuid = randomService.nextUUID();
+        assertNotNull(uuid);
+        assertEquals(36, uuid.length());
+        assertTrue(uuid.matches("[a-f0-9]{8}-[a-f0-9]{4}-[a-f0-9]{4}-[a-f0-9]{4}-[a-f0-9]{12}"));
+        assertEquals(4, UUID.fromString(uuid).version());
+        assertEquals(2, UUID.fromString(uuid).variant());
+    }
+
+    @Test
+    void testNextDigits() {
+        var counts = new int[10];
+        IntStream.range(0, 1000)
+                .mapToObj(i -> randomService.nextDigits(6))
+                .peek(code -> assertTrue(code.matches("\\d{6}")))
+                .flatMapToInt(String::chars)
+                .forEach(c -> counts[c - '0']++);
+
+        // 6000 digits, every value is expected about 600 times
+        IntStream.of(counts).forEach(c -> assertTrue(c > 450 && c < 750));
+    }
+
+    @Test
+    void testConcurrentUnique() {
+        var values = ConcurrentHashMap.<String>newKeySet();
+        IntStream.range(0, 10_000).parallel()
+                .forEach(i -> assertTrue(values.add(Base64.getEncoder().encodeToString(randomService.nextBytes(16)))));
+
+        assertTrue(meterRegistry.timer("random.refill").count() > 0);
+    }
+}
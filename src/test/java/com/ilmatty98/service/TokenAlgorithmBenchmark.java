@@ -0,0 +1,67 @@
+package com.ilmatty98.service;
+
+import com.ilmatty98.constants.TokenAlgorithmEnum;
+import com.ilmatty98.repository.MemoryTokenKeyStore;
+import com.ilmatty98.utils.AuthenticationUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign, verify and key generation cost of each token algorithm, verification without the verified token cache.
+ * Run the main method on the test classpath after mvn test-compile
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenAlgorithmBenchmark {
+
+    @Param
+    private TokenAlgorithmEnum algorithm;
+
+    private TokenJwtService tokenJwtService;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenJwtService = new TokenJwtService(new MemoryTokenKeyStore());
+        tokenJwtService.encryptionKey = Base64.getEncoder().encodeToString(AuthenticationUtils.generateSalt(32));
+        tokenJwtService.tokenExpiration = 10;
+        tokenJwtService.validationCacheMaxSize = 0;
+        tokenJwtService.algorithm = algorithm;
+        tokenJwtService.pregenerationDelay = Duration.ofDays(1);
+        tokenJwtService.init();
+        token = tokenJwtService.generateTokenJwt(1L, "email@test.com", "USER", 0);
+        System.out.printf("%n%s token size: %d bytes%n", algorithm, token.length());
+    }
+
+    @Benchmark
+    public String sign() {
+        return tokenJwtService.generateTokenJwt(1L, "email@test.com", "USER", 0);
+    }
+
+    @Benchmark
+    public Object verify() {
+        return tokenJwtService.validateTokenJwt(token);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void keyGeneration() {
+        tokenJwtService.generateKeyPair();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenAlgorithmBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,74 @@
+package com.ilmatty98.service;
+
+import com.ilmatty98.constants.TokenAlgorithmEnum;
+import com.ilmatty98.repository.MemoryTokenKeyStore;
+import com.ilmatty98.utils.AuthenticationUtils;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token validation throughput: parser rebuilt on every call (previous behaviour), prebuilt parser, verified token cache.
+ * Run the main method on the test classpath after mvn test-compile
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenJwtServiceBenchmark {
+
+    private TokenJwtService tokenJwtService;
+
+    private PublicKey publicKey;
+
+    private JwtParser parser;
+
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        tokenJwtService = new TokenJwtService(new MemoryTokenKeyStore());
+        tokenJwtService.encryptionKey = Base64.getEncoder().encodeToString(AuthenticationUtils.generateSalt(32));
+        tokenJwtService.tokenExpiration = 10;
+        tokenJwtService.algorithm = TokenAlgorithmEnum.RS256;
+        tokenJwtService.validationCacheMaxSize = 10000;
+        tokenJwtService.pregenerationDelay = Duration.ofDays(1);
+        tokenJwtService.init();
+        token = tokenJwtService.generateTokenJwt(1L, "email@test.com", "USER", 0);
+
+        var encoded = Base64.getDecoder().decode(tokenJwtService.getPublicKey());
+        publicKey = KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(encoded));
+        parser = Jwts.parser().verifyWith(publicKey).build();
+    }
+
+    @Benchmark
+    public Object parserPerCall() {
+        return Jwts.parser().verifyWith(publicKey).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Object prebuiltParser() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Object verifiedTokenCache() {
+        return tokenJwtService.validateTokenJwt(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenJwtServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,98 @@
+package com.ilmatty98.service;
+
+import com.ilmatty98.constants.TokenAlgorithmEnum;
+import com.ilmatty98.repository.MemoryTokenKeyStore;
+import com.ilmatty98.utils.AuthenticationUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold cost of TokenJwtService: startup with an empty keyring (a key pair generated on every start, previous behaviour)
+ * or with an existing one, rotation with or without a pre-generated key pair.
+ * Run the main method on the test classpath after mvn test-compile
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class TokenJwtServiceStartupBenchmark {
+
+    private static final String ENCRYPTION_KEY = Base64.getEncoder().encodeToString(AuthenticationUtils.generateSalt(32));
+
+    @Param({"RS256", "ES256"})
+    private TokenAlgorithmEnum algorithm;
+
+    private MemoryTokenKeyStore existingKeyring;
+
+    private TokenJwtService service;
+
+    private TokenJwtService generatedService;
+
+    private TokenJwtService pregeneratedService;
+
+    @Setup(Level.Trial)
+    public void setUpKeyring() {
+        existingKeyring = new MemoryTokenKeyStore();
+        newTokenJwtService(existingKeyring, Duration.ofDays(1)).init();
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        service = newTokenJwtService(existingKeyring, Duration.ofDays(1));
+
+        generatedService = newTokenJwtService(new MemoryTokenKeyStore(), Duration.ofDays(1));
+        generatedService.init();
+
+        pregeneratedService = newTokenJwtService(new MemoryTokenKeyStore(), Duration.ZERO);
+        pregeneratedService.init();
+        pregeneratedService.nextKeyPair.join();
+    }
+
+    @Benchmark
+    public TokenJwtService startupEmptyKeyring() {
+        var emptyService = newTokenJwtService(new MemoryTokenKeyStore(), Duration.ofDays(1));
+        emptyService.init();
+        return emptyService;
+    }
+
+    @Benchmark
+    public TokenJwtService startupExistingKeyring() {
+        service.init();
+        return service;
+    }
+
+    @Benchmark
+    public TokenJwtService rotationGenerated() {
+        generatedService.generateKeyPair();
+        return generatedService;
+    }
+
+    @Benchmark
+    public TokenJwtService rotationPregenerated() {
+        pregeneratedService.generateKeyPair();
+        return pregeneratedService;
+    }
+
+    private TokenJwtService newTokenJwtService(MemoryTokenKeyStore tokenKeyStore, Duration pregenerationDelay) {
+        var tokenJwtService = new TokenJwtService(tokenKeyStore);
+        tokenJwtService.encryptionKey = ENCRYPTION_KEY;
+        tokenJwtService.tokenExpiration = 10;
+        tokenJwtService.validationCacheMaxSize = 0;
+        tokenJwtService.previousKeys = 1;
+        tokenJwtService.algorithm = algorithm;
+        tokenJwtService.pregenerationDelay = pregenerationDelay;
+        return tokenJwtService;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenJwtServiceStartupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -1,16 +1,31 @@
 package com.ilmatty98.service;
 
 import com.ilmatty98.AuthenticationServiceTests;
+import com.ilmatty98.constants.TokenAlgorithmEnum;
+import com.ilmatty98.constants.TokenClaimEnum;
+import com.ilmatty98.repository.MemoryTokenKeyStore;
+import com.ilmatty98.repository.TokenKeyStore;
+import com.ilmatty98.utils.AuthenticationUtils;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.quarkus.security.UnauthorizedException;
 import io.quarkus.test.junit.QuarkusTest;
+import jakarta.ws.rs.NotAuthorizedException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
+import java.security.KeyFactory;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
 import java.sql.Date;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.HashMap;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -18,19 +33,117 @@ import static org.junit.jupiter.api.Assertions.*;
 @QuarkusTest
 class TokenJwtServiceTest extends AuthenticationServiceTests {
 
+    private static final String ENCRYPTION_KEY = Base64.getEncoder().encodeToString(AuthenticationUtils.generateSalt(32));
+
+    @ConfigProperty(name = "token.keyring.previous-keys")
+    int previousKeys;
+
     @Test
     void testGenerateTokenJwtAndValidate() {
-        var subject = "Subject";
-        var claims = new HashMap<String, Object>();
-        claims.put("claim1", generateRandomString(10));
-        claims.put("claim2", generateRandomString(100));
+        var email = generateRandomString(10) + "@test.com";
 
-        var token = tokenJwtService.generateTokenJwt(claims);
+        var token = tokenJwtService.generateTokenJwt(1L, email, "VERIFIED", 0);
         assertNotNull(token);
 
         var claimsFromToken = tokenJwtService.validateTokenJwt(token);
-        assertEquals(claims.get("claim1"), claimsFromToken.get("claim1"));
-        assertEquals(claims.get("claim2"), claimsFromToken.get("claim2"));
+        assertEquals(1, claimsFromToken.get(TokenClaimEnum.ID.getLabel()));
+        assertEquals(email, claimsFromToken.get(TokenClaimEnum.EMAIL.getLabel()));
+    }
+
+    @Test
+    void testValidateTokenJwtCached() {
+        var token = tokenJwtService.generateTokenJwt(1L, generateRandomString(10) + "@test.com", "VERIFIED", 0);
+        var first = tokenJwtService.validateTokenJwt(token);
+        var second = tokenJwtService.validateTokenJwt(token);
+        assertSame(first, second);
+
+        // A tampered token never hits the cache of the original one
+        var tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThrows(NotAuthorizedException.class, () -> tokenJwtService.validateTokenJwt(tampered));
+    }
+
+    @Test
+    void testValidateTokenJwtAfterKeyRotation() {
+        var token = tokenJwtService.generateTokenJwt(1L, EMAIL, "VERIFIED", 0);
+        assertNotNull(tokenJwtService.validateTokenJwt(token));
+
+        // The retired key still verifies the tokens it signed
+        tokenJwtService.generateKeyPair();
+        var newToken = tokenJwtService.generateTokenJwt(1L, EMAIL, "VERIFIED", 0);
+        assertNotNull(tokenJwtService.validateTokenJwt(token));
+        assertNotNull(tokenJwtService.validateTokenJwt(newToken));
+        assertEquals(previousKeys + 1, countKeys(tokenJwtService.getJwks().json()));
+
+        // Until it drops out of the keyring
+        for (var i = 0; i < previousKeys; i++) {
+            tokenJwtService.generateKeyPair();
+        }
+        assertThrows(NotAuthorizedException.class, () -> tokenJwtService.validateTokenJwt(token));
+        assertEquals(previousKeys + 1, countKeys(tokenJwtService.getJwks().json()));
+    }
+
+    @Test
+    void testValidateTokenJwtUnknownKey() {
+        var service = newTokenJwtService(new MemoryTokenKeyStore(), TokenAlgorithmEnum.RS256);
+
+        var token = service.generateTokenJwt(1L, EMAIL, "VERIFIED", 0);
+        assertThrows(NotAuthorizedException.class, () -> tokenJwtService.validateTokenJwt(token));
+    }
+
+    @Test
+    void testKeyringPersisted() {
+        var token = tokenJwtService.generateTokenJwt(1L, EMAIL, "VERIFIED", 0);
+        var tokenKey = tokenKeyRepository.findLatest(1).getFirst();
+        var header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        assertTrue(header.contains("\"kid\":\"" + tokenKey.getKeyId() + "\""));
+
+        // The private key is only stored encrypted
+        assertNotEquals(tokenKey.getPublicKey(), tokenKey.getPrivateKey());
+        assertThrows(InvalidKeySpecException.class, () -> KeyFactory.getInstance("RSA")
+                .generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(tokenKey.getPrivateKey()))));
+    }
+
+    @Test
+    void testKeyringSharedByReplicas() {
+        var tokenKeyStore = new MemoryTokenKeyStore();
+        var replica1 = newTokenJwtService(tokenKeyStore, TokenAlgorithmEnum.ES256);
+        var replica2 = newTokenJwtService(tokenKeyStore, TokenAlgorithmEnum.ES256);
+        assertEquals(1, tokenKeyStore.findLatest(10).size());
+        assertEquals(replica1.getJwks(), replica2.getJwks());
+
+        var token = replica1.generateTokenJwt(1L, EMAIL, "VERIFIED", 0);
+        assertNotNull(replica2.validateTokenJwt(token));
+
+        // A key rotated by one replica is picked up by the other one on its first token
+        var fireTime = Instant.now();
+        replica1.rotate(fireTime);
+        replica2.rotate(fireTime);
+        assertEquals(2, tokenKeyStore.findLatest(10).size());
+        var newToken = replica1.generateTokenJwt(1L, EMAIL, "VERIFIED", 0);
+        assertNotNull(replica2.validateTokenJwt(newToken));
+        assertNotNull(replica2.validateTokenJwt(token));
+        assertEquals(replica1.getJwks(), replica2.getJwks());
+    }
+
+    @ParameterizedTest
+    @EnumSource(TokenAlgorithmEnum.class)
+    void testTokenAlgorithm(TokenAlgorithmEnum algorithm) throws Exception {
+        var service = newTokenJwtService(new MemoryTokenKeyStore(), algorithm);
+
+        var email = generateRandomString(10) + "@test.com";
+        var token = service.generateTokenJwt(1L, email, "VERIFIED", 0);
+        assertEquals(email, service.validateTokenJwt(token).get(TokenClaimEnum.EMAIL.getLabel()));
+
+        // Tokens are verified with the published key
+        var encoded = Base64.getDecoder().decode(service.getPublicKey());
+        var publicKey = KeyFactory.getInstance(algorithm.getKeyAlgorithm()).generatePublic(new X509EncodedKeySpec(encoded));
+        var jws = Jwts.parser().verifyWith(publicKey).build().parseSignedClaims(token);
+        assertEquals(email, jws.getPayload().get(TokenClaimEnum.EMAIL.getLabel()));
+        assertEquals(algorithm == TokenAlgorithmEnum.ED25519 ? "EdDSA" : algorithm.name(), jws.getHeader().getAlgorithm());
+        assertTrue(service.getJwks().json().contains("\"kid\":\"" + jws.getHeader().getKeyId() + "\""));
+
+        // Tokens signed by another instance are rejected
+        assertThrows(NotAuthorizedException.class, () -> tokenJwtService.validateTokenJwt(token));
     }
 
     @Test
@@ -64,5 +177,46 @@ class TokenJwtServiceTest extends AuthenticationServiceTests {
         });
     }
 
+    @ParameterizedTest
+    @EnumSource(TokenAlgorithmEnum.class)
+    void testGenerateTokenJwtWithWriter(TokenAlgorithmEnum algorithm) {
+        var service = newTokenJwtService(new MemoryTokenKeyStore(), algorithm);
 
+        var token = service.generateTokenJwt(1L, "email@test.com", "VERIFIED", 2);
+        var claims = service.validateTokenJwt(token);
+
+        assertEquals(1, claims.get(TokenClaimEnum.ID.getLabel()));
+        assertEquals("email@test.com", claims.get(TokenClaimEnum.EMAIL.getLabel()));
+        assertEquals("VERIFIED", claims.get(TokenClaimEnum.ROLE.getLabel()));
+        assertEquals(2, claims.get(TokenClaimEnum.EPOCH.getLabel()));
+        assertEquals(10, ChronoUnit.SECONDS.between(((Claims) claims).getIssuedAt().toInstant(),
+                ((Claims) claims).getExpiration().toInstant()) / 60);
+    }
+
+    @Test
+    void testKeyPairPregenerated() {
+        var service = newTokenJwtService(new MemoryTokenKeyStore(), TokenAlgorithmEnum.ES256);
+        var pregenerated = service.nextKeyPair.join();
+
+        service.generateKeyPair();
+
+        assertEquals(Base64.getEncoder().encodeToString(pregenerated.getPublic().getEncoded()), service.getPublicKey());
+        assertNotSame(pregenerated, service.nextKeyPair.join());
+    }
+
+    private static TokenJwtService newTokenJwtService(TokenKeyStore tokenKeyStore, TokenAlgorithmEnum algorithm) {
+        var service = new TokenJwtService(tokenKeyStore);
+        service.tokenExpiration = 10;
+        service.validationCacheMaxSize = 0;
+        service.previousKeys = 1;
+        service.algorithm = algorithm;
+        service.encryptionKey = ENCRYPTION_KEY;
+        service.pregenerationDelay = Duration.ZERO;
+        service.init();
+        return service;
+    }
+
+    private static long countKeys(String jwks) {
+        return jwks.split("\"kid\"", -1).length - 1;
+    }
 }
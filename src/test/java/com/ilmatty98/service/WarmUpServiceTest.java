@@ -0,0 +1,68 @@
+package com.ilmatty98.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ilmatty98.AuthenticationServiceTests;
+import com.ilmatty98.constants.EmailTypeEnum;
+import com.ilmatty98.dto.EmailTemplateDto;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+class WarmUpServiceTest extends AuthenticationServiceTests {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)}");
+
+    @Inject
+    @Readiness
+    WarmUpService warmUpService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Test
+    void testReadyAfterWarmUp() throws InterruptedException {
+        var deadline = System.currentTimeMillis() + 60_000;
+        while (warmUpService.call().getStatus() != HealthCheckResponse.Status.UP && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        assertEquals(HealthCheckResponse.Status.UP, warmUpService.call().getStatus());
+        given()
+                .when()
+                .get("/q/health/ready")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .body("checks.name", hasItem("warm-up"));
+    }
+
+    @Test
+    void testEmailLabelsCoverTemplates() throws IOException {
+        for (var emailType : EmailTypeEnum.values()) {
+            var labels = objectMapper.readValue(getResource(emailType.getLabelLocation()), EmailTemplateDto.class).getTemplate();
+            var matcher = PLACEHOLDER.matcher(new String(getResource(emailType.getTemplateLocation()), StandardCharsets.UTF_8));
+            while (matcher.find()) {
+                var key = matcher.group(1);
+                assertTrue(labels.containsKey(key) || WarmUpService.DYNAMIC_LABELS.containsKey(key), emailType + " misses " + key);
+            }
+        }
+    }
+
+    private static byte[] getResource(String location) throws IOException {
+        try (var inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(location)) {
+            assertNotNull(inputStream, location);
+            return inputStream.readAllBytes();
+        }
+    }
+}
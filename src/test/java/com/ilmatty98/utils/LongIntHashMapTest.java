@@ -0,0 +1,71 @@
+package com.ilmatty98.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntHashMapTest {
+
+    @Test
+    void testPutAndGet() {
+        var map = new LongIntHashMap(100);
+        for (var i = 1L; i <= 100; i++) {
+            map.put(i, (int) i * 2);
+        }
+        map.put(50, 7);
+
+        assertEquals(100, map.size());
+        assertEquals(7, map.get(50, 0));
+        assertEquals(200, map.get(100, 0));
+        assertEquals(-1, map.get(101, -1));
+    }
+
+    @Test
+    void testCopy() {
+        var map = new LongIntHashMap(1);
+        map.put(1, 1);
+
+        var copy = map.copy(2);
+        copy.put(2, 2);
+        copy.put(3, 3);
+
+        assertEquals(1, map.size());
+        assertEquals(0, map.get(2, 0));
+        assertEquals(3, copy.size());
+        assertEquals(1, copy.get(1, 0));
+        assertEquals(3, copy.get(3, 0));
+    }
+
+    @Test
+    void testFull() {
+        var map = new LongIntHashMap(1);
+        map.put(1, 1);
+        assertThrows(IllegalStateException.class, () -> map.put(2, 2));
+    }
+
+    @Test
+    void testZeroKey() {
+        var map = new LongIntHashMap(2);
+        assertEquals(-1, map.get(0, -1));
+
+        map.put(0, 5);
+        map.put(1, 1);
+        assertEquals(5, map.get(0, -1));
+        assertEquals(2, map.size());
+
+        var copy = map.copy(0);
+        assertEquals(5, copy.get(0, -1));
+        assertEquals(2, copy.size());
+    }
+
+    @Test
+    void testMemoryPerMillionKeys() {
+        var map = new LongIntHashMap(1_000_000);
+        for (var i = 1L; i <= 1_000_000; i++) {
+            map.put(i, 1);
+        }
+
+        assertEquals(24L * 1024 * 1024, map.memoryBytes());
+        assertEquals(1, map.get(1_000_000, 0));
+    }
+}
@@ -0,0 +1,65 @@
+package com.ilmatty98.client;
+
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Downloads the JWK Set, conditionally when a previous version is known
+ **/
+@Slf4j
+@RequiredArgsConstructor
+class JwksFetcher {
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private final TokenVerifierConfig config;
+
+    Keyring fetch(Keyring current) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(config.getJwksUri())
+                .timeout(config.getTimeout())
+                .header("Accept", "application/json")
+                .GET();
+        if (current != null && current.tag() != null)
+            request.header("If-None-Match", current.tag());
+
+        var response = config.getHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofString());
+        var now = Instant.now();
+        var maxAge = getMaxAge(response);
+        if (response.statusCode() == 304 && current != null)
+            return current.revalidated(maxAge, now);
+        if (response.statusCode() != 200)
+            throw new IOException("Unexpected status " + response.statusCode() + " fetching " + config.getJwksUri());
+
+        var keys = new HashMap<String, PublicKey>();
+        for (var jwk : Jwks.setParser().build().parse(response.body())) {
+            if (jwk instanceof PublicJwk<?> publicJwk && jwk.getId() != null)
+                keys.put(jwk.getId(), publicJwk.toKey());
+        }
+        if (keys.isEmpty())
+            throw new IOException("No public keys in " + config.getJwksUri());
+
+        log.debug("Fetched {} keys from {}", keys.size(), config.getJwksUri());
+        return new Keyring(Collections.unmodifiableMap(keys), response.headers().firstValue("ETag").orElse(null), maxAge, now);
+    }
+
+    private static Duration getMaxAge(HttpResponse<?> response) {
+        return response.headers().firstValue("Cache-Control")
+                .map(MAX_AGE::matcher)
+                .filter(Matcher::find)
+                .map(m -> Duration.ofSeconds(Long.parseLong(m.group(1))))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ilmatty98.client;
+
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the key set, replaced as a whole on refresh
+ *
+ * @param tag    entity tag of the key set, sent back to get a 304 when nothing changed
+ * @param maxAge Cache-Control max-age of the key set, null when absent
+ **/
+record Keyring(Map<String, PublicKey> keys, String tag, Duration maxAge, Instant fetchedAt) {
+
+    Keyring revalidated(Duration maxAge, Instant at) {
+        return new Keyring(keys, tag, maxAge, at);
+    }
+
+    Duration age(Instant now) {
+        return Duration.between(fetchedAt, now);
+    }
+}
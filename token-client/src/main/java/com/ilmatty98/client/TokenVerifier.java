@@ -0,0 +1,206 @@
+package com.ilmatty98.client;
+
+import com.ilmatty98.client.constants.TokenClaimEnum;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import lombok.extern.slf4j.Slf4j;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Verifies the access tokens of the authentication service locally, against its public key set.
+ * The key set is refreshed in background and served stale while it is being revalidated: a verification never waits
+ * for the network, except for a token signed with a key not seen yet (a rotation happened since the last refresh).
+ **/
+@Slf4j
+public class TokenVerifier implements AutoCloseable {
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(10);
+
+    private final TokenVerifierConfig config;
+
+    private final JwksFetcher fetcher;
+
+    private final JwtParser parser;
+
+    private final ScheduledExecutorService executor;
+
+    private final AtomicReference<Keyring> keyring = new AtomicReference<>();
+
+    private final AtomicReference<CompletableFuture<Keyring>> refreshing = new AtomicReference<>();
+
+    private final AtomicLong lastRefreshForKey = new AtomicLong();
+
+    public TokenVerifier(TokenVerifierConfig config) {
+        this.config = config;
+        this.fetcher = new JwksFetcher(config);
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(ProtectedHeader header) {
+                        return getKey(header.getKeyId());
+                    }
+                })
+                .build();
+        this.executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("token-client-refresh")
+                .daemon().factory());
+    }
+
+    /**
+     * Loads the key set, failing if it is not available, then keeps it up to date in background
+     **/
+    public TokenVerifier start() {
+        try {
+            var loaded = refresh().get(config.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            log.info("Loaded {} token keys from {}", loaded.keys().size(), config.getJwksUri());
+            scheduleRefresh(getRefreshDelay(loaded));
+            return this;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted loading the token keys", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Error loading the token keys from " + config.getJwksUri(), e);
+        }
+    }
+
+    public VerifiedToken verify(String token) {
+        var snapshot = keyring.get();
+        if (snapshot == null)
+            throw new IllegalStateException("Token verifier not started");
+
+        // Stale keys are used while they are revalidated, unless they are too old to be trusted
+        var age = snapshot.age(Instant.now());
+        if (age.compareTo(config.getRefreshInterval().plus(config.getTimeout())) > 0)
+            refresh();
+        if (age.compareTo(config.getMaxStale()) > 0)
+            throw new TokenVerificationException("Token keys are stale");
+
+        try {
+            var jws = parser.parseSignedClaims(token);
+            return toVerifiedToken(jws.getPayload(), jws.getHeader().getKeyId());
+        } catch (TokenVerificationException e) {
+            throw e;
+        } catch (ExpiredJwtException e) {
+            throw new TokenVerificationException("Token is expired", e);
+        } catch (Exception e) {
+            throw new TokenVerificationException("Invalid token", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * One refresh at a time, concurrent callers share it
+     **/
+    CompletableFuture<Keyring> refresh() {
+        while (true) {
+            var inFlight = refreshing.get();
+            if (inFlight != null)
+                return inFlight;
+
+            var flight = new CompletableFuture<Keyring>();
+            if (refreshing.compareAndSet(null, flight)) {
+                executor.execute(() -> fetch(flight));
+                return flight;
+            }
+        }
+    }
+
+    private void fetch(CompletableFuture<Keyring> flight) {
+        try {
+            var loaded = fetcher.fetch(keyring.get());
+            keyring.set(loaded);
+            flight.complete(loaded);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            flight.completeExceptionally(e);
+        } catch (Exception e) {
+            log.warn("Error refreshing the token keys from {}", config.getJwksUri(), e);
+            flight.completeExceptionally(e);
+        } finally {
+            refreshing.compareAndSet(flight, null);
+        }
+    }
+
+    private void scheduleRefresh(Duration delay) {
+        if (executor.isShutdown())
+            return;
+
+        executor.schedule(() -> refresh().whenComplete((loaded, e) ->
+                scheduleRefresh(e == null ? getRefreshDelay(loaded) : min(RETRY_DELAY, config.getRefreshInterval()))),
+                delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The max-age of the key set lasts until the next rotation: it can shorten the refresh interval, never extend it
+     **/
+    private Duration getRefreshDelay(Keyring loaded) {
+        var maxAge = loaded.maxAge();
+        if (maxAge == null)
+            return config.getRefreshInterval();
+        return min(config.getRefreshInterval(), maxAge.compareTo(config.getMinRefreshInterval()) < 0
+                ? config.getMinRefreshInterval() : maxAge);
+    }
+
+    private PublicKey getKey(String keyId) {
+        var key = keyring.get().keys().get(keyId);
+        if (key == null && keyId != null)
+            key = refreshForKey(keyId);
+        if (key == null)
+            throw new TokenVerificationException("Unknown key " + keyId);
+        return key;
+    }
+
+    /**
+     * Refreshes the key set for a token signed with an unknown key, at most once per minRefreshInterval:
+     * the other tokens signed with an unknown key are rejected meanwhile
+     **/
+    private PublicKey refreshForKey(String keyId) {
+        var last = lastRefreshForKey.get();
+        var now = System.currentTimeMillis();
+        if (now - last > config.getMinRefreshInterval().toMillis() && lastRefreshForKey.compareAndSet(last, now)) {
+            try {
+                refresh().get(config.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Token keys not refreshed for key {}", keyId);
+            }
+        }
+        return keyring.get().keys().get(keyId);
+    }
+
+    private static VerifiedToken toVerifiedToken(Claims claims, String keyId) {
+        var epoch = (Number) claims.get(TokenClaimEnum.EPOCH.getLabel());
+        return new VerifiedToken(
+                ((Number) claims.get(TokenClaimEnum.ID.getLabel())).longValue(),
+                (String) claims.get(TokenClaimEnum.EMAIL.getLabel()),
+                (String) claims.get(TokenClaimEnum.ROLE.getLabel()),
+                epoch == null ? 0 : epoch.intValue(),
+                claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant(),
+                keyId);
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ilmatty98.client;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Getter
+@Builder
+public class TokenVerifierConfig {
+
+    /**
+     * JWK Set of the authentication service, e.g. https://host/.well-known/jwks.json
+     **/
+    @NonNull
+    private final URI jwksUri;
+
+    /**
+     * Upper bound between two background refreshes, the Cache-Control max-age of the key set can only shorten it
+     **/
+    @Builder.Default
+    private final Duration refreshInterval = Duration.ofMinutes(5);
+
+    /**
+     * Age after which cached keys are no longer trusted when the key set cannot be refreshed
+     **/
+    @Builder.Default
+    private final Duration maxStale = Duration.ofHours(1);
+
+    /**
+     * Minimum time between two refreshes caused by tokens signed with an unknown key
+     **/
+    @Builder.Default
+    private final Duration minRefreshInterval = Duration.ofSeconds(1);
+
+    @Builder.Default
+    private final Duration timeout = Duration.ofSeconds(5);
+
+    @Builder.Default
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+}
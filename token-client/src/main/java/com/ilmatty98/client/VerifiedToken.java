@@ -0,0 +1,11 @@
+package com.ilmatty98.client;
+
+import java.time.Instant;
+
+/**
+ * Claims of a token whose signature and expiration have been verified.
+ * The epoch is the user's token epoch at issue time: revocation is only known to the authentication service.
+ **/
+public record VerifiedToken(long id, String email, String role, int epoch, Instant issuedAt, Instant expiration,
+                            String keyId) {
+}
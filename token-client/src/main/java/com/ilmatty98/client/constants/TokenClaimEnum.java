@@ -0,0 +1,19 @@
+package com.ilmatty98.client.constants;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Claims of the access tokens issued by the authentication service
+ **/
+@Getter
+@RequiredArgsConstructor
+public enum TokenClaimEnum {
+
+    ID("id"),
+    EMAIL("email"),
+    ROLE("role"),
+    EPOCH("epoch");
+
+    private final String label;
+}
@@ -0,0 +1,134 @@
+package com.ilmatty98.client;
+
+import com.ilmatty98.client.constants.TokenClaimEnum;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Serves a JWK Set the way the authentication service does, with an entity tag and a max-age
+ **/
+class JwksServer implements AutoCloseable {
+
+    private final HttpServer server;
+
+    private final Map<String, String> jwks = new LinkedHashMap<>();
+
+    private final Map<String, PrivateKey> privateKeys = new LinkedHashMap<>();
+
+    private final SignatureAlgorithm algorithm;
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    private volatile boolean available = true;
+
+    private volatile long maxAge = 3600;
+
+    JwksServer(SignatureAlgorithm algorithm) throws IOException {
+        this.algorithm = algorithm;
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/.well-known/jwks.json", this::handle);
+        server.start();
+    }
+
+    URI getUri() {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + "/.well-known/jwks.json");
+    }
+
+    /**
+     * Adds a signing key, as a rotation does
+     **/
+    synchronized String rotate() {
+        KeyPair keyPair = algorithm.keyPair().build();
+        var jwk = Jwks.builder()
+                .key(keyPair.getPublic())
+                .algorithm(algorithm.getId())
+                .publicKeyUse("sig")
+                .idFromThumbprint()
+                .build();
+        jwks.put(jwk.getId(), Jwks.json(jwk));
+        privateKeys.put(jwk.getId(), keyPair.getPrivate());
+        return jwk.getId();
+    }
+
+    synchronized String sign(String keyId, long id, Instant issuedAt, Instant expiration) {
+        return Jwts.builder()
+                .header().keyId(keyId).and()
+                .claim(TokenClaimEnum.ID.getLabel(), id)
+                .claim(TokenClaimEnum.EMAIL.getLabel(), "email@test.com")
+                .claim(TokenClaimEnum.ROLE.getLabel(), "VERIFIED")
+                .claim(TokenClaimEnum.EPOCH.getLabel(), 2)
+                .issuedAt(Date.from(issuedAt))
+                .expiration(Date.from(expiration))
+                .signWith(privateKeys.get(keyId), algorithm)
+                .compact();
+    }
+
+    void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    void setMaxAge(long maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    int getRequests() {
+        return requests.get();
+    }
+
+    int getNotModified() {
+        return notModified.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        if (!available) {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+
+        String json;
+        synchronized (this) {
+            json = jwks.values().stream().collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+        }
+        var tag = "\"" + Integer.toHexString(json.hashCode()) + "\"";
+        exchange.getResponseHeaders().add("ETag", tag);
+        exchange.getResponseHeaders().add("Cache-Control", "max-age=" + maxAge);
+        if (tag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModified.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        var body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
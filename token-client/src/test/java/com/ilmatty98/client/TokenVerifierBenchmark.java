@@ -0,0 +1,76 @@
+package com.ilmatty98.client;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local verification of an access token: the TokenVerifier against a jjwt parser holding the key directly,
+ * the difference is the cost of the key set lookup and of the claims mapping.
+ * Run the main method on the test classpath after mvn test-compile, add -prof gc for the allocations
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenVerifierBenchmark {
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    private String algorithm;
+
+    private JwksServer server;
+
+    private TokenVerifier tokenVerifier;
+
+    private JwtParser jwtParser;
+
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = new JwksServer((SignatureAlgorithm) Jwts.SIG.get().forKey(algorithm));
+        var keyId = server.rotate();
+        tokenVerifier = new TokenVerifier(TokenVerifierConfig.builder()
+                .jwksUri(server.getUri())
+                .refreshInterval(Duration.ofMinutes(5))
+                .build())
+                .start();
+
+        var now = Instant.now();
+        token = server.sign(keyId, 12345L, now, now.plus(1, ChronoUnit.HOURS));
+        var publicKey = (PublicKey) tokenVerifier.refresh().join().keys().get(keyId);
+        jwtParser = Jwts.parser().verifyWith(publicKey).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        tokenVerifier.close();
+        server.close();
+    }
+
+    @Benchmark
+    public Object jjwtParser() {
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public VerifiedToken tokenVerifier() {
+        return tokenVerifier.verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenVerifierBenchmark.class.getSimpleName()).build()).run();
+    }
+}
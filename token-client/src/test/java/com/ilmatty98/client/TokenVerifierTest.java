@@ -0,0 +1,144 @@
+package com.ilmatty98.client;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenVerifierTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"RS256", "ES256", "EdDSA"})
+    void testVerify(String algorithm) throws Exception {
+        try (var server = new JwksServer((SignatureAlgorithm) Jwts.SIG.get().forKey(algorithm));
+             var verifier = newVerifier(server, Duration.ofMinutes(5), Duration.ofHours(1))) {
+            var keyId = server.rotate();
+            verifier.start();
+            var issuedAt = Instant.ofEpochSecond(Instant.now().getEpochSecond());
+
+            var token = verifier.verify(server.sign(keyId, 42, issuedAt, issuedAt.plusSeconds(600)));
+
+            assertEquals(42, token.id());
+            assertEquals("email@test.com", token.email());
+            assertEquals("VERIFIED", token.role());
+            assertEquals(2, token.epoch());
+            assertEquals(issuedAt, token.issuedAt());
+            assertEquals(issuedAt.plusSeconds(600), token.expiration());
+            assertEquals(keyId, token.keyId());
+            assertEquals(1, server.getRequests());
+        }
+    }
+
+    @Test
+    void testInvalidToken() throws Exception {
+        try (var server = new JwksServer(Jwts.SIG.ES256);
+             var verifier = newVerifier(server, Duration.ofMinutes(5), Duration.ofHours(1))) {
+            var keyId = server.rotate();
+            verifier.start();
+            var now = Instant.now();
+            var expired = server.sign(keyId, 42, now.minusSeconds(1200), now.minusSeconds(600));
+            var token = server.sign(keyId, 42, now, now.plusSeconds(600));
+            var tampered = token.substring(0, token.lastIndexOf('.') + 1) + "AAAA";
+
+            assertEquals("Token is expired", assertThrows(TokenVerificationException.class, () -> verifier.verify(expired)).getMessage());
+            assertEquals("Invalid token", assertThrows(TokenVerificationException.class, () -> verifier.verify(tampered)).getMessage());
+            assertEquals("Invalid token", assertThrows(TokenVerificationException.class, () -> verifier.verify("invalid")).getMessage());
+            assertEquals("Invalid token", assertThrows(TokenVerificationException.class, () -> verifier.verify(null)).getMessage());
+        }
+    }
+
+    @Test
+    void testNotStarted() throws Exception {
+        try (var server = new JwksServer(Jwts.SIG.ES256);
+             var verifier = newVerifier(server, Duration.ofMinutes(5), Duration.ofHours(1))) {
+            assertThrows(IllegalStateException.class, () -> verifier.verify("token"));
+
+            // No keys yet
+            assertThrows(IllegalStateException.class, verifier::start);
+        }
+    }
+
+    @Test
+    void testUnknownKeyRefresh() throws Exception {
+        try (var server = new JwksServer(Jwts.SIG.ES256);
+             var verifier = newVerifier(server, Duration.ofMinutes(5), Duration.ofHours(1))) {
+            server.rotate();
+            verifier.start();
+
+            // Rotated after the last refresh: the key set is fetched again once
+            var keyId = server.rotate();
+            var now = Instant.now();
+            var token = server.sign(keyId, 42, now, now.plusSeconds(600));
+
+            assertEquals(keyId, verifier.verify(token).keyId());
+            assertEquals(keyId, verifier.verify(token).keyId());
+            assertEquals(2, server.getRequests());
+        }
+    }
+
+    @Test
+    void testBackgroundRefresh() throws Exception {
+        try (var server = new JwksServer(Jwts.SIG.ES256);
+             var verifier = newVerifier(server, Duration.ofMinutes(5), Duration.ofHours(1))) {
+            server.rotate();
+            server.setMaxAge(0);
+            verifier.start();
+
+            // The max-age shortens the interval down to the minimum, an unchanged key set is revalidated with a 304
+            var deadline = System.currentTimeMillis() + 10_000;
+            while (server.getNotModified() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertTrue(server.getNotModified() >= 2);
+        }
+    }
+
+    @Test
+    void testStaleWhileRevalidate() throws Exception {
+        try (var server = new JwksServer(Jwts.SIG.ES256);
+             var verifier = newVerifier(server, Duration.ofMillis(100), Duration.ofMillis(1500))) {
+            var keyId = server.rotate();
+            verifier.start();
+            var now = Instant.now();
+            var token = server.sign(keyId, 42, now, now.plusSeconds(600));
+
+            // The refreshes fail, the cached keys keep verifying until they are too old
+            server.setAvailable(false);
+            Thread.sleep(500);
+            assertEquals(42, verifier.verify(token).id());
+            assertTrue(server.getRequests() > 1);
+
+            Thread.sleep(1500);
+            assertEquals("Token keys are stale", assertThrows(TokenVerificationException.class, () -> verifier.verify(token)).getMessage());
+
+            // Back to normal as soon as the key set is reachable again
+            server.setAvailable(true);
+            var deadline = System.currentTimeMillis() + 10_000;
+            while (System.currentTimeMillis() < deadline) {
+                try {
+                    verifier.verify(token);
+                    break;
+                } catch (TokenVerificationException e) {
+                    Thread.sleep(50);
+                }
+            }
+            assertEquals(42, verifier.verify(token).id());
+        }
+    }
+
+    private static TokenVerifier newVerifier(JwksServer server, Duration refreshInterval, Duration maxStale) {
+        return new TokenVerifier(TokenVerifierConfig.builder()
+                .jwksUri(server.getUri())
+                .refreshInterval(refreshInterval)
+                .maxStale(maxStale)
+                .minRefreshInterval(Duration.ofMillis(100))
+                .timeout(Duration.ofSeconds(2))
+                .build());
+    }
+}